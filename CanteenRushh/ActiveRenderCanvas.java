@@ -0,0 +1,105 @@
+package CanteenRushh;
+
+import java.awt.*;
+import java.awt.image.BufferStrategy;
+
+/**
+ * ActiveRenderCanvas - Canvas presented through a BufferStrategy by the game loop.
+ * - Frames appear when renderFrame() is called, not when the RepaintManager decides
+ * - Uses page flipping when the device offers it, blitting otherwise (createBufferStrategy picks)
+ * - renderFrame() returns false when active rendering is unavailable, so callers can fall back to repaint()
+ *
+ * Disable with -Dcanteenrush.activeRendering=false.
+ */
+public class ActiveRenderCanvas extends Canvas {
+
+    private static final long serialVersionUID = 1L;
+
+    public interface Renderer {
+        void renderFrame(Graphics2D g, int width, int height);
+    }
+
+    private static final int BUFFERS = 2;
+
+    private final Renderer renderer;
+    private BufferStrategy strategy;
+    private boolean failed = false;
+
+    public ActiveRenderCanvas(Renderer renderer) {
+        this.renderer = renderer;
+        // we paint ourselves; OS expose events are covered by the next frame
+        setIgnoreRepaint(true);
+    }
+
+    /**
+     * @return true if active rendering is enabled and can work in this environment
+     */
+    public static boolean isSupported() {
+        if (!Boolean.parseBoolean(System.getProperty("canteenrush.activeRendering", "true"))) return false;
+        return !GraphicsEnvironment.isHeadless();
+    }
+
+    public boolean hasFailed() { return failed; }
+
+    public boolean isPageFlipping() {
+        BufferStrategy bs = strategy;
+        return bs != null && bs.getCapabilities().isPageFlipping();
+    }
+
+    /**
+     * Render and present one frame.
+     * @return false if nothing was presented (not displayable yet, or active rendering failed)
+     */
+    public boolean renderFrame() {
+        if (failed) return false;
+        int w = getWidth();
+        int h = getHeight();
+        if (!isDisplayable() || w <= 0 || h <= 0) return false;
+
+        try {
+            if (strategy == null) {
+                createBufferStrategy(BUFFERS);
+                strategy = getBufferStrategy();
+                if (strategy == null) {
+                    failed = true;
+                    return false;
+                }
+            }
+
+            // standard BufferStrategy loop: redraw if the buffer was restored or lost
+            do {
+                do {
+                    Graphics2D g = (Graphics2D) strategy.getDrawGraphics();
+                    try {
+                        renderer.renderFrame(g, w, h);
+                    } finally {
+                        g.dispose();
+                    }
+                } while (strategy.contentsRestored());
+                strategy.show();
+            } while (strategy.contentsLost());
+
+            // flush the pipeline so frame pacing is not hidden by the window system's queue
+            Toolkit.getDefaultToolkit().sync();
+            return true;
+        } catch (Exception e) {
+            System.out.println("Active rendering unavailable, using passive painting: " + e.getMessage());
+            failed = true;
+            disposeStrategy();
+            return false;
+        }
+    }
+
+    @Override
+    public void removeNotify() {
+        disposeStrategy();
+        super.removeNotify();
+    }
+
+    private void disposeStrategy() {
+        if (strategy != null) {
+            try { strategy.dispose(); } catch (Exception ignored) {}
+            strategy = null;
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package CanteenRushh;
+
+import javax.swing.ImageIcon;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.net.URL;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.imageio.ImageIO;
+
+/**
+ * AssetManager - central, asynchronous asset loading.
+ * - Decodes images, icons (animated GIFs) and sound effects in parallel on a small bounded pool
+ * - Every request returns a Future; the same path is only ever loaded once
+ * - Tracks submitted/completed counts so a LoadingScreen can show progress
+ * - resolve() is the one place that knows where assets live (classpath, working dir, assets/)
+ * - A pack built by AssetPacker is checked first; packed entries skip PNG/WAV decoding entirely
+ *
+ * Usage:
+ *   Future<ImageIcon> f = AssetManager.shared().icon("tile/COUNTERNI.png");
+ *   ImageIcon icon = AssetManager.await(f); // null if missing or failed
+ */
+public final class AssetManager {
+
+    private static final int MAX_THREADS = 4;
+    private static AssetManager shared;
+
+    // pack file: -Dcanteenrush.assetPack=<file>, otherwise canteenrush.pack wherever resolve() finds it
+    private static final String PACK_PROPERTY = "canteenrush.assetPack";
+    private static final String DEFAULT_PACK = "canteenrush.pack";
+    private static AssetPack pack;
+    private static boolean packChecked;
+
+    private final ExecutorService pool;
+    private final Map<String, Future<?>> cache = new ConcurrentHashMap<>();
+    private final AtomicInteger submitted = new AtomicInteger();
+    private final AtomicInteger completed = new AtomicInteger();
+
+    private AssetManager() {
+        int threads = Math.max(1, Math.min(MAX_THREADS, Runtime.getRuntime().availableProcessors()));
+        AtomicInteger n = new AtomicInteger();
+        this.pool = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "AssetManager-" + n.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    public static synchronized AssetManager shared() {
+        if (shared == null) shared = new AssetManager();
+        return shared;
+    }
+
+    // ---------------- LOOKUP ----------------
+    /**
+     * Attempts to resolve an asset path from the classpath, the working directory or assets/.
+     * Returns null if not found.
+     */
+    public static URL resolve(String path) {
+        if (path == null) return null;
+        String f = path.startsWith("/") ? path.substring(1) : path;
+        URL url = AssetManager.class.getResource("/" + f);
+        if (url == null) url = AssetManager.class.getResource(f);
+        if (url != null) return url;
+        try {
+            File file = new File(f);
+            if (file.exists()) return file.toURI().toURL();
+            file = new File("assets/" + f);
+            if (file.exists()) return file.toURI().toURL();
+        } catch (Exception ignored) {}
+        return null;
+    }
+
+    /**
+     * The memory-mapped asset pack, or null if there is none (or it is unreadable).
+     * Only a pack on the file system can be mapped.
+     */
+    public static synchronized AssetPack pack() {
+        if (packChecked) return pack;
+        packChecked = true;
+        try {
+            File file;
+            String configured = System.getProperty(PACK_PROPERTY);
+            if (configured != null) {
+                file = new File(configured);
+            } else {
+                URL url = resolve(DEFAULT_PACK);
+                if (url == null || !"file".equals(url.getProtocol())) return null;
+                file = new File(url.toURI());
+            }
+            pack = AssetPack.open(file);
+            System.out.println("AssetManager: using asset pack " + file + " (" + pack.size() + " entries)");
+        } catch (Exception e) {
+            System.out.println("Asset pack not used: " + e.getMessage());
+            pack = null;
+        }
+        return pack;
+    }
+
+    // pack entries are named without a leading slash
+    private static AssetPack packFor(String path) {
+        AssetPack p = pack();
+        return p != null && p.contains(packName(path)) ? p : null;
+    }
+
+    private static String packName(String path) {
+        return path.startsWith("/") ? path.substring(1) : path;
+    }
+
+    // ---------------- REQUESTS ----------------
+    /** Decoded image (ImageIO), or null in the future if missing. */
+    public Future<BufferedImage> image(String path) {
+        return load("image:" + path, () -> {
+            AssetPack p = packFor(path);
+            if (p != null) return p.image(packName(path));
+            URL url = resolve(path);
+            return url != null ? ImageIO.read(url) : null;
+        });
+    }
+
+    /** Fully loaded ImageIcon (keeps GIF animation), or null in the future if missing. */
+    public Future<ImageIcon> icon(String path) {
+        return load("icon:" + path, () -> {
+            AssetPack p = packFor(path);
+            if (p != null) return new ImageIcon(p.toolkitImage(packName(path)));
+            URL url = resolve(path);
+            return url != null ? new ImageIcon(url) : null;
+        });
+    }
+
+    /** Sound effect decoded for the AudioMixer, or null in the future if missing. */
+    public Future<AudioMixer.Sample> sound(String path) {
+        return load("sound:" + path, () -> {
+            AssetPack p = packFor(path);
+            AudioMixer.Sample packed = p != null ? p.sample(packName(path)) : null;
+            return packed != null ? packed : AudioMixer.loadSample(resolve(path));
+        });
+    }
+
+    /**
+     * Pre-decoded image straight from the pack (for loaders with their own threads).
+     * @return null if the pack does not have it
+     */
+    public static BufferedImage packedImage(String path) {
+        AssetPack p = packFor(path);
+        if (p == null) return null;
+        try {
+            return p.image(packName(path));
+        } catch (Exception e) {
+            System.out.println("Failed to read packed image " + path + " -> " + e.getMessage());
+            return null;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> Future<T> load(String key, Callable<T> loader) {
+        return (Future<T>) cache.computeIfAbsent(key, k -> {
+            submitted.incrementAndGet();
+            return pool.submit(() -> {
+                try {
+                    return loader.call();
+                } catch (Exception e) {
+                    System.out.println("Failed to load asset " + k + " -> " + e.getMessage());
+                    return null;
+                } finally {
+                    completed.incrementAndGet();
+                }
+            });
+        });
+    }
+
+    // ---------------- PROGRESS ----------------
+    public int getSubmitted() { return submitted.get(); }
+
+    public int getCompleted() { return completed.get(); }
+
+    /** @return 0..1, 1 when nothing is pending */
+    public double getProgress() {
+        int s = submitted.get();
+        return s == 0 ? 1.0 : Math.min(1.0, completed.get() / (double) s);
+    }
+
+    public boolean isIdle() { return completed.get() >= submitted.get(); }
+
+    /**
+     * Wait for a request; failures and interruptions give null.
+     */
+    public static <T> T await(Future<T> f) {
+        if (f == null) return null;
+        try {
+            return f.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (Exception e) {
+            return null;
+        }
+    }
+}
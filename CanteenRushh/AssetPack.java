@@ -0,0 +1,197 @@
+package CanteenRushh;
+
+import java.awt.Image;
+import java.awt.Toolkit;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.Inflater;
+import javax.imageio.ImageIO;
+
+/**
+ * AssetPack - read side of the pack file written by AssetPacker.
+ * - The whole file is memory-mapped once; entries are sliced out of the mapping
+ * - Images are stored as decoded ARGB pixels: loading is a bulk int copy, no PNG decode
+ * - Sounds are stored as PCM in the AudioMixer format: loading is a bulk short copy, no WAV decode
+ * - GIFs are stored as their original bytes (Toolkit keeps the animation)
+ * - Entries may be deflated; those are inflated on load
+ *
+ * Layout (big-endian):
+ *   int magic, int version, int count
+ *   count x { UTF name, byte kind, byte flags, long offset, int storedLength, int rawLength, int a, int b, int c }
+ *   entry data, each entry aligned to 8 bytes
+ * IMAGE: a = width, b = height, c = 1 if it has alpha. PCM: a = sample rate, b = channels, c = bits.
+ */
+public final class AssetPack {
+
+    static final int MAGIC = 0x4352504B; // "CRPK"
+    static final int VERSION = 1;
+
+    static final byte KIND_IMAGE = 1;
+    static final byte KIND_RAW = 2;
+    static final byte KIND_PCM = 3;
+
+    static final byte FLAG_DEFLATED = 1;
+
+    static final class Entry {
+        byte kind;
+        byte flags;
+        long offset;
+        int storedLength;
+        int rawLength;
+        int a, b, c;
+    }
+
+    private final File file;
+    private final Map<String, Entry> entries;
+    private final MappedByteBuffer data;
+
+    private AssetPack(File file, Map<String, Entry> entries, MappedByteBuffer data) {
+        this.file = file;
+        this.entries = entries;
+        this.data = data;
+    }
+
+    /**
+     * Reads the index and maps the file.
+     * @throws IOException if the file is missing, truncated or not a pack
+     */
+    public static AssetPack open(File file) throws IOException {
+        Map<String, Entry> entries = new HashMap<>();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != MAGIC) throw new IOException("not an asset pack: " + file);
+            int version = in.readInt();
+            if (version != VERSION) throw new IOException("unsupported pack version " + version + ": " + file);
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                String name = in.readUTF();
+                Entry e = new Entry();
+                e.kind = in.readByte();
+                e.flags = in.readByte();
+                e.offset = in.readLong();
+                e.storedLength = in.readInt();
+                e.rawLength = in.readInt();
+                e.a = in.readInt();
+                e.b = in.readInt();
+                e.c = in.readInt();
+                entries.put(name, e);
+            }
+        }
+
+        MappedByteBuffer data;
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r");
+             FileChannel ch = raf.getChannel()) {
+            // the mapping stays valid after the channel is closed
+            data = ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size());
+        }
+        for (Map.Entry<String, Entry> me : entries.entrySet()) {
+            Entry e = me.getValue();
+            if (e.offset < 0 || e.offset + e.storedLength > data.capacity()) {
+                throw new IOException("truncated pack entry " + me.getKey() + ": " + file);
+            }
+        }
+        return new AssetPack(file, Collections.unmodifiableMap(entries), data);
+    }
+
+    public File getFile() { return file; }
+
+    public int size() { return entries.size(); }
+
+    public boolean contains(String name) { return entries.containsKey(name); }
+
+    // ---------------- LOADING ----------------
+    /**
+     * @return the image, or null if the pack has no such entry
+     */
+    public BufferedImage image(String name) throws IOException {
+        Entry e = entries.get(name);
+        if (e == null) return null;
+        if (e.kind == KIND_RAW) return ImageIO.read(new ByteArrayInputStream(bytes(e)));
+        if (e.kind != KIND_IMAGE) return null;
+
+        BufferedImage img = new BufferedImage(e.a, e.b,
+                e.c != 0 ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+        int[] dst = ((DataBufferInt) img.getRaster().getDataBuffer()).getData();
+        payload(e).order(ByteOrder.BIG_ENDIAN).asIntBuffer().get(dst, 0, e.a * e.b);
+        return img;
+    }
+
+    /**
+     * Toolkit image for RAW entries (keeps GIF animation), decoded pixels for IMAGE entries.
+     * @return the image, or null if the pack has no such entry
+     */
+    public Image toolkitImage(String name) throws IOException {
+        Entry e = entries.get(name);
+        if (e == null) return null;
+        if (e.kind == KIND_RAW) return Toolkit.getDefaultToolkit().createImage(bytes(e));
+        return image(name);
+    }
+
+    /**
+     * @return the sound in the mixer format, or null if the pack has no such entry (or another format)
+     */
+    public AudioMixer.Sample sample(String name) throws IOException {
+        Entry e = entries.get(name);
+        if (e == null || e.kind != KIND_PCM) return null;
+        if (e.a != (int) AudioMixer.FORMAT.getSampleRate() || e.b != AudioMixer.FORMAT.getChannels()
+                || e.c != AudioMixer.FORMAT.getSampleSizeInBits()) {
+            System.out.println("Packed sound has a different format than the mixer, ignoring: " + name);
+            return null;
+        }
+        short[] pcm = new short[e.rawLength / 2];
+        payload(e).order(ByteOrder.LITTLE_ENDIAN).asShortBuffer().get(pcm);
+        return new AudioMixer.Sample(pcm);
+    }
+
+    /** The original or decoded bytes of an entry, or null if missing. */
+    public byte[] bytes(String name) throws IOException {
+        Entry e = entries.get(name);
+        return e != null ? bytes(e) : null;
+    }
+
+    private byte[] bytes(Entry e) throws IOException {
+        ByteBuffer p = payload(e);
+        byte[] out = new byte[p.remaining()];
+        p.get(out);
+        return out;
+    }
+
+    // A view into the mapping for stored entries; a heap copy for deflated ones
+    private ByteBuffer payload(Entry e) throws IOException {
+        ByteBuffer view = data.duplicate();
+        view.position((int) e.offset).limit((int) (e.offset + e.storedLength));
+        view = view.slice();
+        if ((e.flags & FLAG_DEFLATED) == 0) return view;
+
+        byte[] out = new byte[e.rawLength];
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(view);
+            int n = 0;
+            while (n < out.length && !inflater.finished()) {
+                int r = inflater.inflate(out, n, out.length - n);
+                if (r == 0 && (inflater.needsInput() || inflater.needsDictionary())) break;
+                n += r;
+            }
+            if (n != out.length) throw new IOException("corrupt pack entry (inflated " + n + " of " + out.length + ")");
+        } catch (java.util.zip.DataFormatException ex) {
+            throw new IOException("corrupt pack entry: " + ex.getMessage());
+        } finally {
+            inflater.end();
+        }
+        return ByteBuffer.wrap(out);
+    }
+}
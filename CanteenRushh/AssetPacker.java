@@ -0,0 +1,234 @@
+package CanteenRushh;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.zip.Deflater;
+import javax.imageio.ImageIO;
+import javax.sound.sampled.AudioInputStream;
+
+/**
+ * AssetPacker - offline tool that writes the pack read by AssetPack.
+ * - PNG/JPG files are decoded once here and stored as ARGB pixels
+ * - GIFs are stored as their original bytes: decoding frames here would lose the timing
+ *   Toolkit/ImageIcon need for the animation
+ * - WAVs are converted to the AudioMixer format and stored as PCM; long tracks are skipped
+ *   because music is streamed from its file anyway
+ * - --deflate compresses an entry only if that saves at least 10%
+ *
+ * An entry is named by its path relative to the directory given on the command line
+ * (or by its file name for single files), which is what AssetManager asks for.
+ *
+ * Usage:
+ *   java -cp out CanteenRushh.AssetPacker canteenrush.pack [--deflate] CanteenRushh <resource root> hover.wav
+ * where the resource root is the folder holding tile/, tableres/ and tindera_gif/.
+ */
+public class AssetPacker {
+
+    // ~3 s of 44.1 kHz stereo; anything longer is music and stays streamed
+    private static final int MAX_PCM_BYTES = 3 * 44100 * 4;
+    private static final int ALIGN = 8;
+
+    private static final class Packed {
+        String name;
+        byte kind;
+        byte flags;
+        byte[] stored;
+        int rawLength;
+        int a, b, c;
+        long offset;
+    }
+
+    public static void main(String[] args) throws IOException {
+        System.setProperty("java.awt.headless", "true");
+        if (args.length < 2) {
+            System.out.println("usage: AssetPacker <out.pack> [--deflate] <dir|file>...");
+            return;
+        }
+        long start = System.nanoTime();
+        File out = new File(args[0]);
+        boolean deflate = false;
+        List<Packed> entries = new ArrayList<>();
+
+        for (int i = 1; i < args.length; i++) {
+            if (args[i].equals("--deflate")) {
+                deflate = true;
+                continue;
+            }
+            File f = new File(args[i]);
+            if (f.isDirectory()) addDirectory(f, f, entries);
+            else if (f.isFile()) addFile(f.getName(), f, entries);
+            else System.out.println("Skipping missing input: " + f);
+        }
+        if (deflate) {
+            for (Packed p : entries) tryDeflate(p);
+        }
+
+        write(out, entries);
+        long total = 0;
+        for (Packed p : entries) total += p.stored.length;
+        System.out.println(String.format("AssetPacker: %d entries, %d KB of data -> %s (%.1f ms)",
+                entries.size(), total / 1024, out, (System.nanoTime() - start) / 1_000_000.0));
+    }
+
+    // ---------------- INPUTS ----------------
+    private static void addDirectory(File root, File dir, List<Packed> entries) throws IOException {
+        File[] files = dir.listFiles();
+        if (files == null) return;
+        Arrays.sort(files); // stable pack layout between runs
+        for (File f : files) {
+            if (f.isDirectory()) {
+                addDirectory(root, f, entries);
+            } else {
+                String name = root.toPath().relativize(f.toPath()).toString().replace(File.separatorChar, '/');
+                addFile(name, f, entries);
+            }
+        }
+    }
+
+    private static void addFile(String name, File f, List<Packed> entries) throws IOException {
+        String lower = name.toLowerCase(Locale.ROOT);
+        Packed p = null;
+        if (lower.endsWith(".png") || lower.endsWith(".jpg") || lower.endsWith(".jpeg")) {
+            p = packImage(f);
+        } else if (lower.endsWith(".gif")) {
+            p = new Packed();
+            p.kind = AssetPack.KIND_RAW;
+            p.stored = Files.readAllBytes(f.toPath());
+        } else if (lower.endsWith(".wav")) {
+            p = packSound(f);
+        }
+        if (p == null) return;
+        p.name = name;
+        p.rawLength = p.stored.length;
+        entries.add(p);
+    }
+
+    private static Packed packImage(File f) throws IOException {
+        BufferedImage img = ImageIO.read(f);
+        if (img == null) {
+            System.out.println("Not a readable image, skipping: " + f);
+            return null;
+        }
+        int w = img.getWidth(), h = img.getHeight();
+        int[] argb = img.getRGB(0, 0, w, h, null, 0, w);
+        ByteBuffer buf = ByteBuffer.allocate(argb.length * 4).order(ByteOrder.BIG_ENDIAN);
+        buf.asIntBuffer().put(argb);
+
+        Packed p = new Packed();
+        p.kind = AssetPack.KIND_IMAGE;
+        p.stored = buf.array();
+        p.a = w;
+        p.b = h;
+        p.c = img.getColorModel().hasAlpha() ? 1 : 0;
+        return p;
+    }
+
+    private static Packed packSound(File f) throws IOException {
+        byte[] pcm;
+        try (AudioInputStream in = AudioMixer.openConverted(f.toURI().toURL())) {
+            if (in == null) return null;
+            pcm = readAll(in, MAX_PCM_BYTES + 1);
+        } catch (javax.sound.sampled.UnsupportedAudioFileException e) {
+            System.out.println("Unsupported audio file, skipping: " + f);
+            return null;
+        }
+        if (pcm.length > MAX_PCM_BYTES) {
+            System.out.println("Long track (streamed at runtime), skipping: " + f);
+            return null;
+        }
+        Packed p = new Packed();
+        p.kind = AssetPack.KIND_PCM;
+        p.stored = pcm;
+        p.a = (int) AudioMixer.FORMAT.getSampleRate();
+        p.b = AudioMixer.FORMAT.getChannels();
+        p.c = AudioMixer.FORMAT.getSampleSizeInBits();
+        return p;
+    }
+
+    private static byte[] readAll(InputStream in, int limit) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        byte[] buf = new byte[8192];
+        int n;
+        while (bytes.size() < limit && (n = in.read(buf)) > 0) bytes.write(buf, 0, n);
+        return bytes.toByteArray();
+    }
+
+    private static void tryDeflate(Packed p) {
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        try {
+            deflater.setInput(p.stored);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(p.stored.length / 2);
+            byte[] buf = new byte[64 * 1024];
+            while (!deflater.finished()) {
+                int n = deflater.deflate(buf);
+                out.write(buf, 0, n);
+            }
+            if (out.size() < p.stored.length * 0.9) {
+                p.stored = out.toByteArray();
+                p.flags |= AssetPack.FLAG_DEFLATED;
+            }
+        } finally {
+            deflater.end();
+        }
+    }
+
+    // ---------------- OUTPUT ----------------
+    private static void write(File out, List<Packed> entries) throws IOException {
+        // index size does not depend on the offsets, so lay out the data first
+        ByteArrayOutputStream indexBytes = new ByteArrayOutputStream();
+        writeHeader(new DataOutputStream(indexBytes), entries);
+        long offset = align(indexBytes.size());
+        for (Packed p : entries) {
+            p.offset = offset;
+            offset = align(offset + p.stored.length);
+        }
+
+        try (DataOutputStream dos = new DataOutputStream(new java.io.BufferedOutputStream(new FileOutputStream(out)))) {
+            writeHeader(dos, entries);
+            long pos = dos.size();
+            for (Packed p : entries) {
+                while (pos < p.offset) {
+                    dos.write(0);
+                    pos++;
+                }
+                dos.write(p.stored);
+                pos += p.stored.length;
+            }
+        }
+    }
+
+    private static void writeHeader(DataOutputStream out, List<Packed> entries) throws IOException {
+        out.writeInt(AssetPack.MAGIC);
+        out.writeInt(AssetPack.VERSION);
+        out.writeInt(entries.size());
+        for (Packed p : entries) {
+            out.writeUTF(p.name);
+            out.writeByte(p.kind);
+            out.writeByte(p.flags);
+            out.writeLong(p.offset);
+            out.writeInt(p.stored.length);
+            out.writeInt(p.rawLength);
+            out.writeInt(p.a);
+            out.writeInt(p.b);
+            out.writeInt(p.c);
+        }
+        out.flush();
+    }
+
+    private static long align(long v) {
+        return (v + ALIGN - 1) / ALIGN * ALIGN;
+    }
+}
@@ -0,0 +1,478 @@
+package CanteenRushh;
+
+import javax.sound.sampled.*;
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * AudioMixer - small software mixer on a single SourceDataLine.
+ * - A fixed pool of voices, each with its own gain, mixed in 16-bit stereo at 44.1 kHz
+ * - Short effects are preloaded once as Samples and can overlap (no stop/rewind of a shared Clip)
+ * - Music is streamed from the file a chunk at a time, so memory does not grow with track length
+ * - Per-voice gain ramps (fadeTo / fadeOut) for click-free fades and crossfades
+ * - Streams are opened, read (and reopened for looping) and closed only by the mixer thread, outside
+ *   the voice lock, so playStream/setGain/fade calls from the EDT never wait on disk
+ *
+ * Usage:
+ * - AudioMixer.shared() (starts the mixer thread on first use)
+ * - Sample s = AudioMixer.loadSample(url); mixer.play(s, gain)
+ * - int voice = mixer.playStream(url, gain, true); mixer.setGain(voice, g); mixer.stop(voice)
+ *
+ * If no output line can be opened the mixer stays silent and every call is a no-op.
+ */
+public final class AudioMixer implements Runnable {
+
+    public static final AudioFormat FORMAT = new AudioFormat(44100f, 16, 2, true, false);
+    private static final int CHANNELS = 2;
+    private static final int BYTES_PER_FRAME = 4;
+
+    // ~11.6 ms per chunk; the line holds a few chunks, which bounds latency
+    private static final int FRAMES_PER_CHUNK = 512;
+    private static final int LINE_CHUNKS = 4;
+    private static final int VOICE_COUNT = 16;
+
+    /** Pre-decoded effect in FORMAT (interleaved stereo). */
+    public static final class Sample {
+        final short[] pcm;
+        final int frames;
+
+        Sample(short[] pcm) {
+            this.pcm = pcm;
+            this.frames = pcm.length / CHANNELS;
+        }
+
+        public double getSeconds() { return frames / (double) FORMAT.getSampleRate(); }
+    }
+
+    private static final class Voice {
+        int generation;     // bumped on every (re)use so stale handles are ignored
+        boolean active;
+        float gain;
+        float targetGain;
+        float gainStep;         // per frame; 0 when not fading
+        boolean stopWhenSilent; // release once a fade reaches 0
+
+        // effect playback
+        Sample sample;
+        int position;       // in frames
+
+        // streamed playback
+        URL source;
+        AudioInputStream stream; // null until the mixer thread has opened source
+        boolean loop;
+    }
+
+    private static AudioMixer shared;
+
+    private final Voice[] voices = new Voice[VOICE_COUNT];
+    private final SourceDataLine line;
+    private float masterGain = 1f;
+    // streams of released voices, closed by the mixer thread (it may still be reading them)
+    private final List<AudioInputStream> retired = new ArrayList<>();
+
+    // mix buffers, only touched by the mixer thread
+    private final int[] accumulator = new int[FRAMES_PER_CHUNK * CHANNELS];
+    private final byte[] output = new byte[FRAMES_PER_CHUNK * BYTES_PER_FRAME];
+
+    // per voice stream chunk, read outside the lock (mixer thread only)
+    private final boolean[] filling = new boolean[VOICE_COUNT];
+    private final int[] fillGeneration = new int[VOICE_COUNT];
+    private final AudioInputStream[] fillStream = new AudioInputStream[VOICE_COUNT];
+    private final URL[] fillSource = new URL[VOICE_COUNT];
+    private final boolean[] fillLoop = new boolean[VOICE_COUNT];
+    private final byte[][] fillBuffer = new byte[VOICE_COUNT][FRAMES_PER_CHUNK * BYTES_PER_FRAME];
+    private final int[] fillBytes = new int[VOICE_COUNT];
+    private final List<AudioInputStream> closing = new ArrayList<>();
+
+    private AudioMixer() {
+        for (int i = 0; i < voices.length; i++) voices[i] = new Voice();
+        this.line = openLine();
+        if (line != null) {
+            Thread t = new Thread(this, "AudioMixer-Thread");
+            t.setDaemon(true);
+            t.setPriority(Thread.MAX_PRIORITY);
+            t.start();
+        }
+    }
+
+    public static synchronized AudioMixer shared() {
+        if (shared == null) shared = new AudioMixer();
+        return shared;
+    }
+
+    public boolean isAvailable() { return line != null; }
+
+    private static SourceDataLine openLine() {
+        try {
+            SourceDataLine l = AudioSystem.getSourceDataLine(FORMAT);
+            l.open(FORMAT, FRAMES_PER_CHUNK * BYTES_PER_FRAME * LINE_CHUNKS);
+            l.start();
+            return l;
+        } catch (Exception e) {
+            System.out.println("AudioMixer: no audio output available -> " + e.getMessage());
+            return null;
+        }
+    }
+
+    // ---------------- LOADING ----------------
+    /**
+     * Decode a short sound fully into memory, converted to the mixer format.
+     * @return the sample, or null if it could not be read
+     */
+    public static Sample loadSample(URL url) {
+        if (url == null) return null;
+        try (AudioInputStream in = openConverted(url)) {
+            if (in == null) return null;
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            byte[] buf = new byte[8192];
+            int n;
+            while ((n = in.read(buf)) > 0) bytes.write(buf, 0, n);
+            byte[] raw = bytes.toByteArray();
+            short[] pcm = new short[raw.length / 2];
+            for (int i = 0; i < pcm.length; i++) {
+                pcm[i] = (short) ((raw[2 * i] & 0xff) | (raw[2 * i + 1] << 8));
+            }
+            return new Sample(pcm);
+        } catch (Exception e) {
+            System.out.println("Failed to load audio: " + url + " -> " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Open an audio file as a stream in FORMAT (PCM decode, then rate/channel conversion if needed).
+     */
+    static AudioInputStream openConverted(URL url) throws IOException, UnsupportedAudioFileException {
+        InputStream raw = new BufferedInputStream(url.openStream());
+        AudioInputStream in = AudioSystem.getAudioInputStream(raw);
+        AudioFormat src = in.getFormat();
+        try {
+            if (!src.getEncoding().equals(AudioFormat.Encoding.PCM_SIGNED) || src.getSampleSizeInBits() != 16) {
+                AudioFormat pcm = new AudioFormat(AudioFormat.Encoding.PCM_SIGNED, src.getSampleRate(), 16,
+                        src.getChannels(), src.getChannels() * 2, src.getSampleRate(), false);
+                in = AudioSystem.getAudioInputStream(pcm, in);
+            }
+            if (!in.getFormat().matches(FORMAT)) {
+                in = AudioSystem.getAudioInputStream(FORMAT, in);
+            }
+            return in;
+        } catch (IllegalArgumentException e) {
+            in.close();
+            System.out.println("Unsupported audio format: " + url + " (" + src + ")");
+            return null;
+        }
+    }
+
+    // ---------------- VOICES ----------------
+    /**
+     * Play a preloaded effect. Effects overlap; if every voice is busy the effect closest to its
+     * end is replaced (and if every voice is music, this effect is dropped).
+     * @return a voice handle, or -1 if nothing is played
+     */
+    public int play(Sample sample, float gain) {
+        if (line == null || sample == null || sample.frames == 0) return -1;
+        synchronized (voices) {
+            int v = freeVoice();
+            if (v < 0) return -1;
+            Voice voice = voices[v];
+            release(voice);
+            voice.generation++;
+            voice.sample = sample;
+            voice.position = 0;
+            setGainNow(voice, gain);
+            voice.active = true;
+            return handle(v, voice);
+        }
+    }
+
+    /**
+     * Stream a (long) track from its file. The file is opened by the mixer thread, so this never
+     * touches the disk; if it cannot be opened or decoded the voice stops (isPlaying turns false)
+     * and the reason is printed.
+     * @return a voice handle, or -1 if every voice is music
+     */
+    public int playStream(URL url, float gain, boolean loop) {
+        if (line == null || url == null) return -1;
+        synchronized (voices) {
+            int v = freeVoice();
+            if (v < 0) {
+                System.out.println("AudioMixer: no free voice for " + url);
+                return -1;
+            }
+            Voice voice = voices[v];
+            release(voice);
+            voice.generation++;
+            voice.source = url;
+            voice.stream = null;
+            voice.loop = loop;
+            setGainNow(voice, gain);
+            voice.active = true;
+            return handle(v, voice);
+        }
+    }
+
+    public void setGain(int handle, float gain) {
+        synchronized (voices) {
+            Voice voice = lookup(handle);
+            if (voice != null) setGainNow(voice, gain);
+        }
+    }
+
+    /** Ramp a voice's gain linearly over the given time. */
+    public void fadeTo(int handle, float gain, double seconds) {
+        synchronized (voices) {
+            Voice voice = lookup(handle);
+            if (voice != null) startFade(voice, gain, seconds, false);
+        }
+    }
+
+    /** Ramp a voice down to silence, then stop it. */
+    public void fadeOut(int handle, double seconds) {
+        synchronized (voices) {
+            Voice voice = lookup(handle);
+            if (voice != null) startFade(voice, 0f, seconds, true);
+        }
+    }
+
+    public boolean isPlaying(int handle) {
+        synchronized (voices) {
+            return lookup(handle) != null;
+        }
+    }
+
+    public void stop(int handle) {
+        synchronized (voices) {
+            Voice voice = lookup(handle);
+            if (voice != null) release(voice);
+        }
+    }
+
+    /** Gain applied after all voices are mixed (0 = silent, 1 = unchanged). */
+    public void setMasterGain(float gain) {
+        synchronized (voices) {
+            masterGain = Math.max(0f, gain);
+        }
+    }
+
+    // handle = generation << 8 | voice index (generation kept to 23 bits so handles stay positive)
+    private static int handle(int index, Voice voice) {
+        return ((voice.generation & 0x7fffff) << 8) | index;
+    }
+
+    private Voice lookup(int handle) {
+        if (handle < 0) return null;
+        int index = handle & 0xff;
+        if (index >= voices.length) return null;
+        Voice voice = voices[index];
+        return (voice.active && (voice.generation & 0x7fffff) == (handle >>> 8)) ? voice : null;
+    }
+
+    // idle voice if any, otherwise the effect voice closest to its end; -1 when every voice is
+    // music (music is never stolen)
+    private int freeVoice() {
+        int best = -1;
+        int bestRemaining = Integer.MAX_VALUE;
+        for (int i = 0; i < voices.length; i++) {
+            Voice v = voices[i];
+            if (!v.active) return i;
+            if (v.sample != null) {
+                int remaining = v.sample.frames - v.position;
+                if (remaining < bestRemaining) { bestRemaining = remaining; best = i; }
+            }
+        }
+        return best;
+    }
+
+    private static void setGainNow(Voice voice, float gain) {
+        voice.gain = voice.targetGain = Math.max(0f, gain);
+        voice.gainStep = 0f;
+        voice.stopWhenSilent = false;
+    }
+
+    private void startFade(Voice voice, float gain, double seconds, boolean stopAtEnd) {
+        float target = Math.max(0f, gain);
+        long frames = (long) (seconds * FORMAT.getSampleRate());
+        if (frames <= 0) {
+            setGainNow(voice, target);
+            voice.stopWhenSilent = stopAtEnd;
+            if (stopAtEnd) release(voice);
+            return;
+        }
+        voice.targetGain = target;
+        voice.gainStep = (target - voice.gain) / frames;
+        voice.stopWhenSilent = stopAtEnd;
+    }
+
+    // advance one frame of a fade
+    private static float nextGain(Voice v) {
+        if (v.gainStep != 0f) {
+            v.gain += v.gainStep;
+            if ((v.gainStep > 0f && v.gain >= v.targetGain) || (v.gainStep < 0f && v.gain <= v.targetGain)) {
+                v.gain = v.targetGain;
+                v.gainStep = 0f;
+            }
+        }
+        return v.gain;
+    }
+
+    // caller holds the voices lock; the stream is closed later by the mixer thread
+    private void release(Voice voice) {
+        voice.active = false;
+        voice.sample = null;
+        voice.source = null;
+        if (voice.stream != null) {
+            retired.add(voice.stream);
+            voice.stream = null;
+        }
+    }
+
+    // ---------------- MIXING ----------------
+    @Override
+    public void run() {
+        while (true) {
+            mixChunk();
+            // blocks while the line is full: this is what paces the mixer
+            line.write(output, 0, output.length);
+        }
+    }
+
+    private void mixChunk() {
+        java.util.Arrays.fill(accumulator, 0);
+
+        // 1) note which streams to read (and take the released ones to close)
+        synchronized (voices) {
+            closing.addAll(retired);
+            retired.clear();
+            for (int i = 0; i < voices.length; i++) {
+                Voice v = voices[i];
+                filling[i] = v.active && v.source != null;
+                if (!filling[i]) continue;
+                fillGeneration[i] = v.generation;
+                fillStream[i] = v.stream;
+                fillSource[i] = v.source;
+                fillLoop[i] = v.loop;
+            }
+        }
+
+        // 2) disk I/O without the lock
+        for (int i = 0; i < closing.size(); i++) closeQuietly(closing.get(i));
+        closing.clear();
+        for (int i = 0; i < voices.length; i++) {
+            if (filling[i]) fillStream(i);
+        }
+
+        // 3) mix
+        float master;
+        synchronized (voices) {
+            master = masterGain;
+            for (int i = 0; i < voices.length; i++) {
+                Voice v = voices[i];
+                if (filling[i] && v.active && v.generation == fillGeneration[i]) {
+                    mixStream(i, v);
+                } else {
+                    // released or reused while reading: a stream reopened by fillStream is ours to close
+                    if (filling[i] && fillStream[i] != null) retired.add(fillStream[i]);
+                    if (v.active && v.sample != null) mixSample(v);
+                }
+                fillStream[i] = null;
+                fillSource[i] = null;
+                if (v.active && v.stopWhenSilent && v.gainStep == 0f && v.gain <= 0f) release(v);
+            }
+        }
+
+        for (int i = 0; i < accumulator.length; i++) {
+            int s = (int) (accumulator[i] * master);
+            if (s > Short.MAX_VALUE) s = Short.MAX_VALUE;
+            else if (s < Short.MIN_VALUE) s = Short.MIN_VALUE;
+            output[2 * i] = (byte) s;
+            output[2 * i + 1] = (byte) (s >> 8);
+        }
+    }
+
+    private void mixSample(Voice v) {
+        short[] pcm = v.sample.pcm;
+        int frames = Math.min(FRAMES_PER_CHUNK, v.sample.frames - v.position);
+        int src = v.position * CHANNELS;
+        for (int f = 0, i = 0; f < frames; f++, i += CHANNELS) {
+            float gain = nextGain(v);
+            accumulator[i] += (int) (pcm[src + i] * gain);
+            accumulator[i + 1] += (int) (pcm[src + i + 1] * gain);
+        }
+        v.position += frames;
+        if (v.position >= v.sample.frames) release(v);
+    }
+
+    /**
+     * Read one chunk of voice i's stream into fillBuffer[i] (mixer thread, no lock held).
+     * A voice that just started opens its file here. At the end of the track a looping voice
+     * reopens the file; fillStream[i] ends up as the stream to keep reading, or null when the
+     * voice is done (or its file could not be opened). A file that gives no data at all
+     * (e.g. an empty data chunk) ends the voice instead of reopening forever.
+     */
+    private void fillStream(int i) {
+        byte[] buf = fillBuffer[i];
+        AudioInputStream in = fillStream[i];
+        int filled = 0;
+        boolean reopened = false;
+        int sinceReopen = 0;
+        try {
+            if (in == null) {
+                in = openConverted(fillSource[i]);
+                reopened = true;
+            }
+            while (in != null && filled < buf.length) {
+                int n = in.read(buf, filled, buf.length - filled);
+                if (n > 0) {
+                    filled += n;
+                    sinceReopen += n;
+                    continue;
+                }
+                // end of track: reopen for looping, otherwise finish after this chunk
+                closeQuietly(in);
+                in = null;
+                if (!fillLoop[i]) break;
+                if (reopened && sinceReopen == 0) {
+                    System.out.println("AudioMixer: no audio data in " + fillSource[i] + ", stopping it");
+                    break;
+                }
+                in = openConverted(fillSource[i]);
+                if (in == null) break;
+                reopened = true;
+                sinceReopen = 0;
+            }
+        } catch (Exception e) {
+            System.out.println("AudioMixer: stream failed: " + fillSource[i] + " -> " + e.getMessage());
+            closeQuietly(in);
+            in = null;
+        }
+        fillStream[i] = in;
+        fillBytes[i] = filled;
+    }
+
+    // mixes the chunk fillStream(i) read; caller holds the voices lock
+    private void mixStream(int i, Voice v) {
+        byte[] buf = fillBuffer[i];
+        // the stream may have ended or been reopened while reading
+        v.stream = fillStream[i];
+
+        int frames = fillBytes[i] / BYTES_PER_FRAME;
+        for (int f = 0, s = 0; f < frames; f++, s += CHANNELS) {
+            float gain = nextGain(v);
+            short left = (short) ((buf[2 * s] & 0xff) | (buf[2 * s + 1] << 8));
+            short right = (short) ((buf[2 * s + 2] & 0xff) | (buf[2 * s + 3] << 8));
+            accumulator[s] += (int) (left * gain);
+            accumulator[s + 1] += (int) (right * gain);
+        }
+        if (v.stream == null) release(v);
+    }
+
+    private static void closeQuietly(AudioInputStream in) {
+        if (in == null) return;
+        try { in.close(); } catch (IOException ignored) {}
+    }
+}
@@ -0,0 +1,143 @@
+package CanteenRushh;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import javax.imageio.ImageIO;
+
+/**
+ * BackgroundStreamer - windowed loader for the story backgrounds.
+ * - Decodes only the scene being shown plus the next few, on one background thread
+ * - Evicts backgrounds that no remaining scene uses, so heap stays bounded by the window
+ * - Never blocks the caller: getIfReady() returns null until the decode finishes
+ *
+ * Usage:
+ * - construct with the background file of every scene, in story order
+ * - call showing(index) whenever the story moves to a new scene
+ * - poll getIfReady(index) from the render/update loop
+ * - call shutdown() when the story ends or its panel leaves the window (stops the decoder thread)
+ */
+public class BackgroundStreamer {
+
+    private final List<String> order;
+    private final int prefetch;
+    private final Function<String, URL> resolver;
+    private final Map<String, Future<BufferedImage>> loaded = new ConcurrentHashMap<>();
+    private final ExecutorService decoder;
+
+    /**
+     * @param order    background file per scene (may contain nulls and repeats)
+     * @param prefetch number of upcoming scenes to decode ahead of the current one
+     * @param resolver maps a file name to a URL (classpath or filesystem); may return null
+     */
+    public BackgroundStreamer(List<String> order, int prefetch, Function<String, URL> resolver) {
+        this.order = new ArrayList<>(order);
+        this.prefetch = Math.max(0, prefetch);
+        this.resolver = resolver;
+        this.decoder = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "INTRO-BackgroundStreamer");
+            t.setDaemon(true);
+            t.setPriority(Thread.NORM_PRIORITY - 1);
+            return t;
+        });
+    }
+
+    /**
+     * Moves the window to the given scene: queues the current and upcoming decodes
+     * and drops anything only earlier scenes needed.
+     */
+    public void showing(int index) {
+        if (index < 0 || index >= order.size()) {
+            clear();
+            return;
+        }
+
+        // current first so it is decoded before the prefetched ones
+        int last = Math.min(order.size() - 1, index + prefetch);
+        for (int i = index; i <= last; i++) {
+            request(order.get(i));
+        }
+
+        // evict everything outside [index, last]
+        for (String key : loaded.keySet()) {
+            boolean needed = false;
+            for (int i = index; i <= last; i++) {
+                if (key.equals(order.get(i))) { needed = true; break; }
+            }
+            if (!needed) {
+                Future<BufferedImage> f = loaded.remove(key);
+                if (f != null) f.cancel(false);
+            }
+        }
+    }
+
+    /**
+     * @return the decoded background for the scene, or null if it is missing or still decoding
+     */
+    public BufferedImage getIfReady(int index) {
+        if (index < 0 || index >= order.size()) return null;
+        String key = order.get(index);
+        if (key == null) return null;
+        Future<BufferedImage> f = loaded.get(key);
+        if (f == null || !f.isDone() || f.isCancelled()) return null;
+        try {
+            return f.get();
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    /**
+     * @return true once the scene's decode has finished (even if the file was missing)
+     */
+    public boolean isReady(int index) {
+        if (index < 0 || index >= order.size()) return true;
+        String key = order.get(index);
+        if (key == null) return true;
+        Future<BufferedImage> f = loaded.get(key);
+        return f != null && f.isDone();
+    }
+
+    public void clear() {
+        for (Future<BufferedImage> f : loaded.values()) f.cancel(false);
+        loaded.clear();
+    }
+
+    public void shutdown() {
+        clear();
+        decoder.shutdownNow();
+    }
+
+    /** @return true once shutdown() ran; a shut down streamer decodes nothing more */
+    public boolean isShutdown() {
+        return decoder.isShutdown();
+    }
+
+    private void request(String key) {
+        if (key == null) return;
+        loaded.computeIfAbsent(key, k -> decoder.submit(() -> decode(k)));
+    }
+
+    private BufferedImage decode(String key) {
+        try {
+            // pre-decoded pixels from the asset pack, when there is one
+            BufferedImage packed = AssetManager.packedImage(key);
+            if (packed != null) return packed;
+            URL u = resolver != null ? resolver.apply(key) : null;
+            if (u != null) return ImageIO.read(u);
+            // try to load with ImageIO directly from file path
+            return ImageIO.read(new File(key));
+        } catch (Exception e) {
+            System.out.println("FAILED TO LOAD IMAGE: " + key + " -> " + e.getMessage());
+            return null;
+        }
+    }
+}
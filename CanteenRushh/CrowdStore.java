@@ -0,0 +1,275 @@
+package CanteenRushh;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * CrowdStore - per-tick state of customers in parallel primitive arrays.
+ * - One record per customer: position, target, steering, state, paid flag, request and patience
+ * - Records are reused through a free list, so customers joining and leaving allocate nothing
+ *   once the arrays have grown to the largest crowd so far
+ * - The movement and patience rules live here; Customer is a view that calls them
+ * - A record's Customer view is only built when something asks for one (drawing, listeners,
+ *   getters) and is kept while the record lives; freeing the record detaches the view onto a
+ *   copy of its last values
+ *
+ * Used by CustomerQueue for its whole crowd, and by a stand-alone Customer for itself (one record).
+ */
+final class CrowdStore {
+
+    // state codes, in Customer.State order
+    static final byte WAITING = 0, MOVING_TO_COUNTER = 1, AT_COUNTER = 2;
+    private static final Customer.State[] STATES = Customer.State.values();
+
+    static final double SPEED = 120.0; // pixels per second
+    static final int DEFAULT_PATIENCE = 15; // seconds
+
+    // patience drops once per second of queue clock since joining (tick k at patienceStart + k),
+    // by the rate of the state the customer was in
+    private static final double TICK_EPSILON = 1e-9; // ticks land on the step that reaches the second
+
+    private final Random rng; // menu choices (shared with the queue for seeded runs)
+
+    // identity & look
+    int[] id;
+    int[] sprite;
+    // motion
+    double[] x, y;
+    double[] prevX, prevY;   // position before the last move, for interpolation
+    int[] targetX, targetY;
+    double[] steerX, steerY; // heading for the next move only (flow field instead of straight at the target)
+    boolean[] steered;
+    // gameplay
+    byte[] state;
+    boolean[] paid;
+    int[] request;           // index into Customer.SAMPLE_MENU, -1 for none
+    boolean[] locked;
+    int[] counterIndex;      // counter the customer was sent to, -1 while waiting in line
+    int[] laneIndex;         // lane they wait in, -1 once they left it
+    // patience
+    int[] maxPatience;
+    double[] patienceRemaining; // seconds, as of the last syncPatience
+    double[] patienceStart;
+    int[] patienceTicks;        // ticks already taken off patienceRemaining
+    double[] patienceRate;      // per tick, fixed between restartPatience calls
+    int[] patienceVersion;      // bumped when the deadline changes; never reset, so entries of a reused record stay stale
+    boolean[] hasDeadline;      // a live deadline entry exists (kept by CustomerQueue)
+
+    private Customer[] views;
+    private int[] free;
+    private int freeCount;
+    private int used; // records ever handed out (the rest of the arrays is unused)
+
+    CrowdStore(int capacity, Random rng) {
+        this.rng = rng;
+        allocate(Math.max(1, capacity));
+    }
+
+    private void allocate(int n) {
+        id = new int[n]; sprite = new int[n];
+        x = new double[n]; y = new double[n]; prevX = new double[n]; prevY = new double[n];
+        targetX = new int[n]; targetY = new int[n];
+        steerX = new double[n]; steerY = new double[n]; steered = new boolean[n];
+        state = new byte[n]; paid = new boolean[n]; request = new int[n]; locked = new boolean[n];
+        counterIndex = new int[n]; laneIndex = new int[n];
+        maxPatience = new int[n]; patienceRemaining = new double[n]; patienceStart = new double[n];
+        patienceTicks = new int[n]; patienceRate = new double[n]; patienceVersion = new int[n];
+        hasDeadline = new boolean[n];
+        views = new Customer[n];
+        free = new int[n];
+    }
+
+    private void grow() {
+        int n = id.length * 2;
+        id = Arrays.copyOf(id, n); sprite = Arrays.copyOf(sprite, n);
+        x = Arrays.copyOf(x, n); y = Arrays.copyOf(y, n);
+        prevX = Arrays.copyOf(prevX, n); prevY = Arrays.copyOf(prevY, n);
+        targetX = Arrays.copyOf(targetX, n); targetY = Arrays.copyOf(targetY, n);
+        steerX = Arrays.copyOf(steerX, n); steerY = Arrays.copyOf(steerY, n); steered = Arrays.copyOf(steered, n);
+        state = Arrays.copyOf(state, n); paid = Arrays.copyOf(paid, n);
+        request = Arrays.copyOf(request, n); locked = Arrays.copyOf(locked, n);
+        counterIndex = Arrays.copyOf(counterIndex, n); laneIndex = Arrays.copyOf(laneIndex, n);
+        maxPatience = Arrays.copyOf(maxPatience, n);
+        patienceRemaining = Arrays.copyOf(patienceRemaining, n);
+        patienceStart = Arrays.copyOf(patienceStart, n);
+        patienceTicks = Arrays.copyOf(patienceTicks, n);
+        patienceRate = Arrays.copyOf(patienceRate, n);
+        patienceVersion = Arrays.copyOf(patienceVersion, n);
+        hasDeadline = Arrays.copyOf(hasDeadline, n);
+        views = Arrays.copyOf(views, n);
+        free = Arrays.copyOf(free, n);
+    }
+
+    // ---------------- RECORDS ----------------
+    /**
+     * New record for a customer standing at (px, py), waiting, paid, with full default patience.
+     * @return the record index
+     */
+    int add(int customerId, double px, double py, int spriteIndex) {
+        int r;
+        if (freeCount > 0) {
+            r = free[--freeCount];
+        } else {
+            if (used == id.length) grow();
+            r = used++;
+        }
+        id[r] = customerId;
+        sprite[r] = spriteIndex;
+        x[r] = prevX[r] = px;
+        y[r] = prevY[r] = py;
+        targetX[r] = (int) px;
+        targetY[r] = (int) py;
+        steered[r] = false;
+        state[r] = WAITING;
+        paid[r] = true; // default true until set to unpaid at counter
+        request[r] = -1;
+        locked[r] = false;
+        counterIndex[r] = -1;
+        laneIndex[r] = -1;
+        maxPatience[r] = DEFAULT_PATIENCE;
+        patienceRemaining[r] = DEFAULT_PATIENCE;
+        patienceStart[r] = 0;
+        patienceTicks[r] = 0;
+        patienceRate[r] = 1.0;
+        hasDeadline[r] = false;
+        return r;
+    }
+
+    /** Give the record back; a view of it keeps a copy of its last values. */
+    void free(int r) {
+        Customer v = views[r];
+        if (v != null) {
+            views[r] = null;
+            v.detach(copyOf(r));
+        }
+        free[freeCount++] = r;
+    }
+
+    /** @return the Customer view of a live record (built on first use, then kept) */
+    Customer view(int r) {
+        Customer v = views[r];
+        if (v == null) {
+            v = new Customer(this, r);
+            views[r] = v;
+        }
+        return v;
+    }
+
+    /** @return the view if one was built, else null (does not build one) */
+    Customer existingView(int r) {
+        return views[r];
+    }
+
+    void attach(int r, Customer v) {
+        views[r] = v;
+    }
+
+    // one-record store with the values of record r (record 0 of the copy)
+    private CrowdStore copyOf(int r) {
+        CrowdStore c = new CrowdStore(1, rng);
+        c.used = 1;
+        c.id[0] = id[r]; c.sprite[0] = sprite[r];
+        c.x[0] = x[r]; c.y[0] = y[r]; c.prevX[0] = prevX[r]; c.prevY[0] = prevY[r];
+        c.targetX[0] = targetX[r]; c.targetY[0] = targetY[r];
+        c.steerX[0] = steerX[r]; c.steerY[0] = steerY[r]; c.steered[0] = steered[r];
+        c.state[0] = state[r]; c.paid[0] = paid[r]; c.request[0] = request[r]; c.locked[0] = locked[r];
+        c.counterIndex[0] = counterIndex[r]; c.laneIndex[0] = laneIndex[r];
+        c.maxPatience[0] = maxPatience[r]; c.patienceRemaining[0] = patienceRemaining[r];
+        c.patienceStart[0] = patienceStart[r]; c.patienceTicks[0] = patienceTicks[r];
+        c.patienceRate[0] = patienceRate[r]; c.patienceVersion[0] = patienceVersion[r];
+        return c;
+    }
+
+    Customer.State stateOf(int r) { return STATES[state[r]]; }
+
+    void setState(int r, Customer.State s) { state[r] = (byte) s.ordinal(); }
+
+    void setTarget(int r, int tx, int ty) {
+        targetX[r] = tx;
+        targetY[r] = ty;
+    }
+
+    // ---------------- MOVEMENT ----------------
+    /** Move one record toward its target (or along its steering direction) for dtSeconds. */
+    void move(int r, double dtSeconds) {
+        double cx = x[r], cy = y[r];
+        prevX[r] = cx;
+        prevY[r] = cy;
+
+        // Movement: along the steering direction if given, else linear movement toward target
+        double dx = targetX[r] - cx;
+        double dy = targetY[r] - cy;
+        double dist = Math.hypot(dx, dy);
+        double step = SPEED * dtSeconds;
+        if (steered[r]) {
+            steered[r] = false;
+            x[r] = cx + steerX[r] * step;
+            y[r] = cy + steerY[r] * step;
+        } else if (dist > 0.5) {
+            x[r] = cx + dx / dist * Math.min(step, dist);
+            y[r] = cy + dy / dist * Math.min(step, dist);
+        } else {
+            // snap to target
+            x[r] = targetX[r];
+            y[r] = targetY[r];
+        }
+    }
+
+    void steer(int r, double dirX, double dirY) {
+        steerX[r] = dirX;
+        steerY[r] = dirY;
+        steered[r] = true;
+    }
+
+    /** Reached the counter: choose what to order, unpaid until served. */
+    void arrive(int r) {
+        state[r] = AT_COUNTER;
+        request[r] = rng.nextInt(Customer.SAMPLE_MENU.length);
+        paid[r] = false;
+        locked[r] = true;
+    }
+
+    // ---------------- PATIENCE ----------------
+    /** Set total patience (and fill it up); call before the queue starts counting it. */
+    void setMaxPatience(int r, int seconds) {
+        maxPatience[r] = seconds;
+        patienceRemaining[r] = seconds;
+    }
+
+    /** Start counting patience ticks from this queue clock time. */
+    void startPatience(int r, double now) {
+        patienceStart[r] = now;
+        patienceTicks[r] = 0;
+    }
+
+    /** Take the ticks that happened up to 'now' off patienceRemaining, at the rate they happened at. */
+    void syncPatience(int r, double now) {
+        int due = (int) Math.floor(now - patienceStart[r] + TICK_EPSILON);
+        if (due <= patienceTicks[r]) return;
+        patienceRemaining[r] = Math.max(0, patienceRemaining[r] - (due - patienceTicks[r]) * patienceRate[r]);
+        patienceTicks[r] = due;
+    }
+
+    /**
+     * Sync to 'now', then decay at the current state's rate from here on.
+     * @return the queue clock time of the tick that empties patience
+     */
+    double restartPatience(int r, double now) {
+        syncPatience(r, now);
+        // Reduce patience differently depending on state
+        double reduction = 1.0; // waiting / moving baseline
+        if (state[r] == AT_COUNTER) {
+            reduction = paid[r] ? 1.5 : 3.0; // unpaid reduces faster
+        }
+        patienceRate[r] = reduction;
+        patienceVersion[r]++;
+        double ticksDone = patienceStart[r] + patienceTicks[r];
+        if (patienceRemaining[r] <= 0) return ticksDone;
+        return ticksDone + Math.ceil(patienceRemaining[r] / reduction - TICK_EPSILON);
+    }
+
+    /** @return patience left over total patience, as of the last sync (for the patience bar) */
+    double patienceFraction(int r) {
+        return patienceRemaining[r] / maxPatience[r];
+    }
+}
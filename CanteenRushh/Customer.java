@@ -1,236 +1,244 @@
-package CanteenRushh;
-
-import javax.swing.*;
-import java.awt.*;
-import java.awt.geom.RoundRectangle2D;
-import java.awt.image.BufferedImage;
-import java.io.File;
-import java.io.IOException; 
-import java.util.Random;
-import javax.imageio.ImageIO;
-
-/**
- * customer - visual Customer used by CustomerQueue.
- * - Uses PNG standing sprites for WAITING / AT_COUNTER
- * - Uses animated GIF for MOVING_TO_COUNTER (walk)
- */
-public class Customer {
-    public enum State { WAITING, MOVING_TO_COUNTER, AT_COUNTER }
-
-    public final int id;
-    private static final Random RNG = new Random();
-
-    // visual & motion
-    public double x, y;
-    private Point target;
-    private final int width = 48, height = 64;
-    private final double speed = 120.0; // pixels per second
-
-    // sprites: standing PNGs and walking GIFs
-    private Image spriteStanding;    // static PNG for WAITING and AT_COUNTER
-    private Image spriteWalking;     // animated GIF for MOVING_TO_COUNTER
-
-    // filenames (must be placed in same package/resource path or assets/)
-    private static final String[] WALKING_GIFS = {
-        "walking-talikod-keren.gif",
-        "walking-talikod-matcha.gif",
-        "walking-talikod-miki.gif",
-        "walking-talikod-rov.gif",
-        "walking-talikod-jea.gif"
-    };
-
-    private static final String[] STANDING_PNGS = {
-        "standing-keren1.png",
-        "standing-matcha1.png",
-        "standing-miki1.png",
-        "standing-rov1.png",
-        "standing-jea1.png"
-    };
-
-    // state & gameplay
-    private State state = State.WAITING;
-    public boolean paid = true; // default true until set to unpaid at counter
-    public String menuRequest = "";
-    public int maxPatience = 15; // seconds of patience total
-    public double patienceRemaining; // seconds
-    private double patienceAccumulator = 0.0; // accumulate dt for 1s ticks
-    private final String[] SAMPLE_MENU = {"Burger","Fries","Soda","Coffee","Nuggets","Wrap"};
-
-    // locking
-    private boolean lockedToCounter = false;
-
-    public Customer(int id, Point spawnPos) {
-        this.id = id;
-        this.x = spawnPos.x;
-        this.y = spawnPos.y;
-        this.target = new Point((int)x, (int)y);
-        this.patienceRemaining = maxPatience;
-
-        // pick a character index and load matching standing and walking sprites
-        int idx = RNG.nextInt(Math.min(WALKING_GIFS.length, STANDING_PNGS.length));
-        loadSprites(idx);
-    }
-
-    private void loadSprites(int idx) {
-        String walkFile = WALKING_GIFS[idx];
-        String standFile = STANDING_PNGS[idx];
-
-        // Try classpath resource for walking GIF (animated)
-        try {
-            java.net.URL res = getClass().getResource(walkFile);
-            if (res == null) res = getClass().getResource("/" + walkFile);
-            if (res != null) {
-                spriteWalking = new ImageIcon(res).getImage();
-            }
-        } catch (Exception e) {
-            spriteWalking = null;
-        }
-
-        // Try classpath resource for standing PNG
-        try {
-            java.net.URL res2 = getClass().getResource(standFile);
-            if (res2 == null) res2 = getClass().getResource("/" + standFile);
-            if (res2 != null) {
-                spriteStanding = ImageIO.read(res2);
-            }
-        } catch (IOException e) {
-            spriteStanding = null;
-        }
-
-        // Fallback to assets/ folder in working directory for walking GIF
-        if (spriteWalking == null) {
-            try {
-                File f = new File("assets/" + walkFile);
-                if (f.exists()) spriteWalking = new ImageIcon(f.getPath()).getImage();
-            } catch (Exception ignored) {}
-        }
-
-        // Fallback to assets/ folder for standing PNG
-        if (spriteStanding == null) {
-            try {
-                File f = new File("assets/" + standFile);
-                if (f.exists()) spriteStanding = ImageIO.read(f);
-            } catch (IOException ignored) {}
-        }
-
-        // Last fallback: placeholder images if both missing
-        if (spriteStanding == null) spriteStanding = createPlaceholderImage();
-        if (spriteWalking == null) spriteWalking = spriteStanding; // if no gif, use static image
-    }
-
-    private Image createPlaceholderImage() {
-        BufferedImage img = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
-        Graphics2D g = img.createGraphics();
-        g.setColor(new Color(180, 130, 100));
-        g.fillRect(0, 0, width, height);
-        g.setColor(Color.DARK_GRAY);
-        g.drawRect(0, 0, width - 1, height - 1);
-        g.dispose();
-        return img;
-    }
-
-    public State getState() { return state; }
-    public void setState(State s) { state = s; }
-
-    public void setTarget(Point t) {
-        this.target = new Point(t);
-    }
-
-    public Point getTarget() { return target; }
-
-    public boolean isLockedToCounter() { return lockedToCounter; }
-    public void lockToCounter() { lockedToCounter = true; }
-
-    public boolean isAtCounter() { return state == State.AT_COUNTER; }
-
-    /**
-     * Update customer's movement + patience.
-     * @param dtSeconds delta time in seconds
-     */
-    public void update(double dtSeconds) {
-        // Movement: linear movement toward target
-        double dx = target.x - x;
-        double dy = target.y - y;
-        double dist = Math.hypot(dx, dy);
-        double step = speed * dtSeconds;
-        if (dist > 0.5) {
-            double nx = x + dx / dist * Math.min(step, dist);
-            double ny = y + dy / dist * Math.min(step, dist);
-            x = nx; y = ny;
-        } else {
-            // snap to target
-            x = target.x; y = target.y;
-        }
-
-        // Patience tick: accumulate and reduce once per second
-        patienceAccumulator += dtSeconds;
-        while (patienceAccumulator >= 1.0) {
-            applyPatienceTick();
-            patienceAccumulator -= 1.0;
-        }
-    }
-
-    private void applyPatienceTick() {
-        // Reduce patience differently depending on state
-        double reduction = 1.0; // waiting baseline
-        if (state == State.MOVING_TO_COUNTER) reduction = 1.0;
-        if (state == State.AT_COUNTER) {
-            reduction = paid ? 1.5 : 3.0; // unpaid reduces faster
-        }
-        patienceRemaining -= reduction;
-        if (patienceRemaining < 0) patienceRemaining = 0;
-    }
-
-    public boolean isAngry() { return patienceRemaining <= 0; }
-
-    public void arriveAtCounterAndChooseRequest() {
-        this.state = State.AT_COUNTER;
-        this.menuRequest = SAMPLE_MENU[RNG.nextInt(SAMPLE_MENU.length)];
-        this.paid = false;
-        lockToCounter();
-    }
-
-    // Simple draw - chooses standing vs walking sprite based on state
-    public void draw(Graphics2D g) {
-        int ix = (int) Math.round(x - width/2.0);
-        int iy = (int) Math.round(y - height);
-
-        // Select sprite: walking when MOVING_TO_COUNTER, standing otherwise
-        Image toDraw = (state == State.MOVING_TO_COUNTER) ? spriteWalking : spriteStanding;
-
-        if (toDraw != null) {
-            g.drawImage(toDraw, ix, iy, width, height, null);
-        } else {
-            // fallback body if image missing
-            RoundRectangle2D.Double body = new RoundRectangle2D.Double(ix, iy, width, height, 10, 10);
-            g.setColor(new Color(220, 180, 150));
-            g.fill(body);
-            g.setColor(Color.DARK_GRAY);
-            g.draw(body);
-        }
-
-        // speech bubble / request (only at counter)
-        if (state == State.AT_COUNTER) {
-            g.setColor(Color.WHITE);
-            g.fillRoundRect(ix - 6, iy - 26, 60, 18, 8, 8);
-            g.setColor(Color.BLACK);
-            g.setFont(new Font("SansSerif", Font.PLAIN, 10));
-            g.drawString(menuRequest, ix - 2, iy - 12);
-        }
-
-        // patience bar (above head)
-        int barW = width;
-        int barH = 6;
-        double frac = Math.max(0, Math.min(1.0, patienceRemaining / maxPatience));
-        g.setColor(Color.DARK_GRAY);
-        g.fillRect(ix, iy - 14, barW, barH);
-        g.setColor(frac > 0.5 ? Color.GREEN : (frac > 0.2 ? Color.ORANGE : Color.RED));
-        g.fillRect(ix + 1, iy - 13, (int) ((barW - 2) * frac), barH - 2);
-
-        // pay indicator (at counter)
-        if (state == State.AT_COUNTER) {
-            g.setColor(paid ? Color.BLUE : Color.RED);
-            g.fillOval(ix + width - 12, iy - 6, 10, 10);
-        }
-    }
-}
+package CanteenRushh;
+
+import java.awt.*;
+import java.awt.geom.RoundRectangle2D;
+import java.util.Random;
+
+/**
+ * customer - visual Customer used by CustomerQueue.
+ * - Uses PNG standing sprites for WAITING / AT_COUNTER
+ * - Uses animated GIF for MOVING_TO_COUNTER (walk)
+ * - Sprites come from the shared SpriteAtlas, so spawning does no image I/O
+ *   (and a customer that is never drawn never touches images)
+ * - A view over one CrowdStore record: CustomerQueue keeps its crowd in the store and only
+ *   builds a Customer when one is drawn or handed out (listeners, getFront, ...). Once the
+ *   customer leaves the queue, the view keeps the values they had when they left.
+ *   A Customer made with a public constructor has a store of its own.
+ * - Patience is counted on the queue clock and only worked out when asked for:
+ *   getPatienceRemaining(now) / isAngry(now) with now = CustomerQueue.getClock()
+ */
+public class Customer {
+    public enum State { WAITING, MOVING_TO_COUNTER, AT_COUNTER }
+
+    public final int id;
+    private static final Random RNG = new Random();
+
+    // the record this view reads and writes
+    private CrowdStore store;
+    private int record;
+
+    private final int width = 48, height = 64;
+
+    static final int DEFAULT_PATIENCE = CrowdStore.DEFAULT_PATIENCE; // seconds
+    static final String[] SAMPLE_MENU = {"Burger","Fries","Soda","Coffee","Nuggets","Wrap"}; // shared with CustomerOverlay
+
+    // screen box (sprite + overlay) and look of the last frame, for dirty-rectangle repaint
+    private final Rectangle drawnBounds = new Rectangle();
+    private int drawnKey = Integer.MIN_VALUE;
+    private State drawnState;
+
+    public Customer(int id, Point spawnPos) {
+        this(id, spawnPos, -1);
+    }
+
+    /**
+     * @param spriteIndex SpriteAtlas character index, or -1 for a random character
+     */
+    public Customer(int id, Point spawnPos, int spriteIndex) {
+        this(id, spawnPos, spriteIndex, RNG);
+    }
+
+    /**
+     * @param spriteIndex SpriteAtlas character index, or -1 for a random character
+     * @param rng         random source for the character and menu choices
+     */
+    public Customer(int id, Point spawnPos, int spriteIndex, Random rng) {
+        this.id = id;
+        // pick a character index (unless given); its shared sprites are looked up in draw
+        if (spriteIndex < 0 || spriteIndex >= SpriteAtlas.CHARACTER_COUNT) {
+            spriteIndex = rng.nextInt(SpriteAtlas.CHARACTER_COUNT);
+        }
+        this.store = new CrowdStore(1, rng);
+        this.record = store.add(id, spawnPos.x, spawnPos.y, spriteIndex);
+        store.attach(record, this);
+    }
+
+    // view of a queue's record (CrowdStore.view)
+    Customer(CrowdStore store, int record) {
+        this.id = store.id[record];
+        this.store = store;
+        this.record = record;
+    }
+
+    // the record was freed: read from a copy of its last values from now on
+    void detach(CrowdStore copy) {
+        this.store = copy;
+        this.record = 0;
+        copy.attach(0, this);
+    }
+
+    boolean isViewOf(CrowdStore s) { return store == s; }
+
+    int getRecord() { return record; }
+
+    public double getX() { return store.x[record]; }
+    public double getY() { return store.y[record]; }
+
+    public State getState() { return store.stateOf(record); }
+    public void setState(State s) { store.setState(record, s); }
+
+    public void setTarget(Point t) {
+        store.setTarget(record, t.x, t.y);
+    }
+
+    /** @return a copy of the point this customer walks to */
+    public Point getTarget() { return new Point(store.targetX[record], store.targetY[record]); }
+
+    /**
+     * Walk along this unit direction in the next update instead of straight at the target
+     * (used when the direct line is blocked). Applies to one update only.
+     */
+    public void steer(double dirX, double dirY) {
+        store.steer(record, dirX, dirY);
+    }
+
+    /** Shift the current position (crowd separation); the previous position is left alone. */
+    public void nudge(double dx, double dy) {
+        store.x[record] += dx;
+        store.y[record] += dy;
+    }
+
+    public boolean isLockedToCounter() { return store.locked[record]; }
+    public void lockToCounter() { store.locked[record] = true; }
+
+    public boolean isAtCounter() { return store.state[record] == CrowdStore.AT_COUNTER; }
+
+    /** @return the counter this customer is walking to or standing at, -1 while waiting */
+    public int getCounterIndex() { return store.counterIndex[record]; }
+
+    /** Default true until set to unpaid at the counter. */
+    public boolean isPaid() { return store.paid[record]; }
+
+    /** Changes the patience rate at the counter: tell the queue (CustomerQueue.reschedulePatience). */
+    public void setPaid(boolean paid) { store.paid[record] = paid; }
+
+    /** @return what this customer ordered at the counter, "" before that */
+    public String getMenuRequest() {
+        int r = store.request[record];
+        return r >= 0 ? SAMPLE_MENU[r] : "";
+    }
+
+    /**
+     * Update customer's movement (patience is kept by the queue clock, see syncPatience).
+     * @param dtSeconds delta time in seconds
+     */
+    public void update(double dtSeconds) {
+        store.move(record, dtSeconds);
+    }
+
+    // ---------------- PATIENCE ----------------
+    /** Set total patience (and fill it up); call before the queue starts counting it. */
+    public void setMaxPatience(int seconds) {
+        store.setMaxPatience(record, seconds);
+    }
+
+    public int getMaxPatience() { return store.maxPatience[record]; }
+
+    /** Take the ticks that happened up to 'now' off the remaining patience, at the rate they happened at. */
+    public void syncPatience(double now) {
+        store.syncPatience(record, now);
+    }
+
+    /**
+     * Patience is only brought up to date when asked for, so callers pass the queue clock
+     * (CustomerQueue.getClock()) the answer should hold at.
+     * @return seconds of patience left at queue clock time 'now'
+     */
+    public double getPatienceRemaining(double now) {
+        store.syncPatience(record, now);
+        return store.patienceRemaining[record];
+    }
+
+    /** @return true once patience has run out at queue clock time 'now' */
+    public boolean isAngry(double now) {
+        return getPatienceRemaining(now) <= 0;
+    }
+
+    public void arriveAtCounterAndChooseRequest() {
+        store.arrive(record);
+    }
+
+    // Simple draw - chooses standing vs walking sprite based on state
+    public void draw(Graphics2D g) {
+        drawAt(g, store.x[record], store.y[record]);
+    }
+
+    /**
+     * Draw between the previous and current update position.
+     * @param alpha 0 = previous position, 1 = current position
+     */
+    public void draw(Graphics2D g, double alpha) {
+        CrowdStore s = store;
+        int r = record;
+        drawAt(g, s.prevX[r] + (s.x[r] - s.prevX[r]) * alpha, s.prevY[r] + (s.y[r] - s.prevY[r]) * alpha);
+    }
+
+    private void drawAt(Graphics2D g, double px, double py) {
+        int ix = (int) Math.round(px - width/2.0);
+        int iy = (int) Math.round(py - height);
+
+        // Select sprite: walking when MOVING_TO_COUNTER, standing otherwise
+        int spriteIndex = store.sprite[record];
+        Image toDraw = (store.state[record] == CrowdStore.MOVING_TO_COUNTER)
+                ? SpriteAtlas.walking(spriteIndex) : SpriteAtlas.standing(spriteIndex);
+
+        if (toDraw != null) {
+            g.drawImage(toDraw, ix, iy, width, height, null);
+        } else {
+            // fallback body if image missing
+            RoundRectangle2D.Double body = new RoundRectangle2D.Double(ix, iy, width, height, 10, 10);
+            g.setColor(new Color(220, 180, 150));
+            g.fill(body);
+            g.setColor(Color.DARK_GRAY);
+            g.draw(body);
+        }
+
+        // speech bubble, patience bar and pay indicator: one prepared image per distinct state
+        boolean atCounter = isAtCounter();
+        double frac = store.patienceFraction(record);
+        CustomerOverlay.draw(g, overlayKey(), ix, iy, atCounter, getMenuRequest(), isPaid(), frac);
+    }
+
+    private int overlayKey() {
+        return CustomerOverlay.key(isAtCounter(), store.request[record], isPaid(), store.patienceFraction(record));
+    }
+
+    // ---------------- DIRTY REGIONS ----------------
+    /**
+     * Adds the old and new screen box to the tracker when this customer will look different
+     * at the given alpha than in the last frame (moved, changed sprite or overlay).
+     * Walking customers are always dirty: their sprite is animated.
+     */
+    public void markDirty(DirtyRegionTracker tracker, double alpha) {
+        CrowdStore s = store;
+        int r = record;
+        int ix = (int) Math.round(s.prevX[r] + (s.x[r] - s.prevX[r]) * alpha - width/2.0) + CustomerOverlay.OFFSET_X;
+        int iy = (int) Math.round(s.prevY[r] + (s.y[r] - s.prevY[r]) * alpha - height) + CustomerOverlay.OFFSET_Y;
+        State state = getState();
+        int key = overlayKey();
+        if (state != State.MOVING_TO_COUNTER && state == drawnState && key == drawnKey
+                && ix == drawnBounds.x && iy == drawnBounds.y) {
+            return;
+        }
+        tracker.add(drawnBounds);
+        // sprite (48x64) plus the overlay above it
+        drawnBounds.setBounds(ix, iy, Math.max(width - CustomerOverlay.OFFSET_X, CustomerOverlay.IMAGE_W),
+                height - CustomerOverlay.OFFSET_Y);
+        drawnState = state;
+        drawnKey = key;
+        tracker.add(drawnBounds);
+    }
+
+    /** Screen box used by the last markDirty call (empty before the first). */
+    public Rectangle getDrawnBounds() { return drawnBounds; }
+}
@@ -0,0 +1,144 @@
+package CanteenRushh;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+
+/**
+ * CustomerOverlay - pre-rendered speech bubble, patience bar and pay indicator.
+ * - Everything a customer draws above its sprite goes into one small translucent image
+ * - Images are keyed by (at counter, request, paid, patience bar width and colour) and built once
+ * - A customer keeps its current key and only looks up a new image when that state changes;
+ *   drawing is then a single drawImage instead of several shape and text calls
+ *
+ * The image is drawn at (sprite x + OFFSET_X, sprite y + OFFSET_Y).
+ */
+public final class CustomerOverlay {
+
+    public static final int OFFSET_X = -6, OFFSET_Y = -26;
+    public static final int IMAGE_W = 64, IMAGE_H = 32;
+
+    // same layout and tuning as the sprite it sits on
+    private static final int SPRITE_W = 48;
+    private static final int BAR_FILL_MAX = SPRITE_W - 2;
+    private static final Font REQUEST_FONT = new Font("SansSerif", Font.PLAIN, 10);
+    private static final Color[] BAR_COLORS = { Color.GREEN, Color.ORANGE, Color.RED };
+
+    // key space: fill 0..BAR_FILL_MAX x colour x request (+1 for "other") x paid x at counter
+    private static final int REQUESTS = Customer.SAMPLE_MENU.length;
+    private static final int KEY_COUNT = (BAR_FILL_MAX + 1) * BAR_COLORS.length * (REQUESTS + 1) * 2 * 2;
+    private static final Image[] CACHE = new Image[KEY_COUNT];
+
+    /** Returned by key() for state that cannot be cached (a request outside SAMPLE_MENU). */
+    public static final int UNCACHED = -1;
+
+    private CustomerOverlay() {}
+
+    /**
+     * @param requestIndex index into Customer.SAMPLE_MENU (ignored when not at the counter)
+     * @param patienceFrac remaining patience, 0..1
+     */
+    public static int key(boolean atCounter, int requestIndex, boolean paid, double patienceFrac) {
+        double frac = Math.max(0, Math.min(1.0, patienceFrac));
+        int fill = (int) (BAR_FILL_MAX * frac);
+        int color = colorIndex(frac);
+        int req = 0, pay = 0;
+        if (atCounter) {
+            if (requestIndex < 0 || requestIndex >= REQUESTS) return UNCACHED;
+            req = requestIndex + 1;
+            pay = paid ? 1 : 0;
+        }
+        return (((fill * BAR_COLORS.length + color) * (REQUESTS + 1) + req) * 2 + pay) * 2 + (atCounter ? 1 : 0);
+    }
+
+    /** The overlay image for a key, rendered the first time it is asked for. Call from the paint thread. */
+    public static Image get(int key) {
+        Image img = CACHE[key];
+        if (img == null) {
+            img = render(key);
+            CACHE[key] = img;
+        }
+        return img;
+    }
+
+    /** Draw the overlay for a sprite at (ix, iy); falls back to direct drawing for uncached state. */
+    public static void draw(Graphics2D g, int key, int ix, int iy,
+                            boolean atCounter, String request, boolean paid, double patienceFrac) {
+        if (key == UNCACHED) {
+            Graphics2D og = (Graphics2D) g.create(ix + OFFSET_X, iy + OFFSET_Y, IMAGE_W, IMAGE_H);
+            try {
+                paint(og, atCounter, request, paid, patienceFrac);
+            } finally {
+                og.dispose();
+            }
+            return;
+        }
+        g.drawImage(get(key), ix + OFFSET_X, iy + OFFSET_Y, null);
+    }
+
+    // ---------------- RENDER ----------------
+    private static Image render(int key) {
+        boolean atCounter = (key & 1) != 0;
+        int rest = key >> 1;
+        boolean paid = (rest & 1) != 0;
+        rest >>= 1;
+        int req = rest % (REQUESTS + 1);
+        rest /= REQUESTS + 1;
+        int color = rest % BAR_COLORS.length;
+        int fill = rest / BAR_COLORS.length;
+
+        BufferedImage img = createImage();
+        Graphics2D g = img.createGraphics();
+        try {
+            paint(g, atCounter, req > 0 ? Customer.SAMPLE_MENU[req - 1] : "", paid, fill, BAR_COLORS[color]);
+        } finally {
+            g.dispose();
+        }
+        return img;
+    }
+
+    private static void paint(Graphics2D g, boolean atCounter, String request, boolean paid, double patienceFrac) {
+        double frac = Math.max(0, Math.min(1.0, patienceFrac));
+        paint(g, atCounter, request, paid, (int) (BAR_FILL_MAX * frac), BAR_COLORS[colorIndex(frac)]);
+    }
+
+    // Same shapes Customer used to draw, moved by (-OFFSET_X, -OFFSET_Y)
+    private static void paint(Graphics2D g, boolean atCounter, String request, boolean paid, int fill, Color barColor) {
+        int ix = -OFFSET_X, iy = -OFFSET_Y;
+
+        // speech bubble / request (only at counter)
+        if (atCounter) {
+            g.setColor(Color.WHITE);
+            g.fillRoundRect(ix - 6, iy - 26, 60, 18, 8, 8);
+            g.setColor(Color.BLACK);
+            g.setFont(REQUEST_FONT);
+            g.drawString(request, ix - 2, iy - 12);
+        }
+
+        // patience bar (above head)
+        g.setColor(Color.DARK_GRAY);
+        g.fillRect(ix, iy - 14, SPRITE_W, 6);
+        g.setColor(barColor);
+        g.fillRect(ix + 1, iy - 13, fill, 4);
+
+        // pay indicator (at counter)
+        if (atCounter) {
+            g.setColor(paid ? Color.BLUE : Color.RED);
+            g.fillOval(ix + SPRITE_W - 12, iy - 6, 10, 10);
+        }
+    }
+
+    private static int colorIndex(double frac) {
+        return frac > 0.5 ? 0 : (frac > 0.2 ? 1 : 2);
+    }
+
+    // video-memory friendly when there is a screen, plain ARGB when headless
+    private static BufferedImage createImage() {
+        if (!GraphicsEnvironment.isHeadless()) {
+            try {
+                return GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice()
+                        .getDefaultConfiguration().createCompatibleImage(IMAGE_W, IMAGE_H, Transparency.TRANSLUCENT);
+            } catch (Exception ignored) {}
+        }
+        return new BufferedImage(IMAGE_W, IMAGE_H, BufferedImage.TYPE_INT_ARGB);
+    }
+}
@@ -1,206 +1,828 @@
-package CanteenRushh;
-
-import java.awt.*;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Random;
-
-import CanteenRushh.Customer;
-
-
-/**
- * CustomerQueue
- * - Manages list of Customer objects
- * - Spawns customers from bottom-right
- * - Assigns waiting slots (stacked upward along the right side)
- * - Moves front customer to counter, handles arrival and patience ticks
- *
- * Usage:
- * - call update(dtSeconds) every tick
- * - call paint(g2d) during paintComponent
- * - call spawnCustomer() to add a new one at the end
- *
- * Events: implement QueueEventListener for life changes or for external reaction when someone leaves.
- */
-public class CustomerQueue {
-    public interface QueueEventListener {
-        void onCustomerLeftAngrily(Customer c);
-        void onLivesChanged(int lives);
-    }
-
-    private final Rectangle area; // area where queue slots are computed
-    private final Point counterPos; // absolute pixel position of counter
-    private final List<Customer> customers = new ArrayList<>();
-    private final List<Point> slotPositions = new ArrayList<>();
-    private final int maxSlots;
-    private final QueueEventListener listener;
-    private final Random rng = new Random();
-
-    private int nextCustomerId = 1;
-    private int lives = 3;
-    private final double arrivalThreshold = 8.0; // px to consider arrived at counter
-
-    // timing
-    private double globalAccumulator = 0.0;
-
-    // configuration
-    private final int slotSpacing = 72; // vertical spacing between waiting slots
-    private final int slotOffsetX = -160; // shift left from right edge for slots (was -40)
-    private final int spawnOffset = 140; // spawn offset off-screen bottom-right (was 80)
-
-
-    public CustomerQueue(Rectangle queueArea, Point counterPos, int maxSlots, QueueEventListener listener) {
-        this.area = new Rectangle(queueArea);
-        this.counterPos = new Point(counterPos);
-        this.maxSlots = maxSlots;
-        this.listener = listener;
-        computeSlots();
-    }
-
-    private void computeSlots() {
-        slotPositions.clear();
-        // Build slots stacked up from bottom-right of 'area'
-        int rightX = area.x + area.width + slotOffsetX; // a bit left inside area
-        int baseY = area.y + area.height - 8; // bottom inside area
-        for (int i = 0; i < maxSlots; i++) {
-            int sx = rightX;
-            int sy = baseY - i * slotSpacing;
-            slotPositions.add(new Point(sx, sy));
-        }
-    }
-
-    public void setLives(int lives) {
-        this.lives = lives;
-        if (listener != null) listener.onLivesChanged(this.lives);
-    }
-
-    public int getLives() { return lives; }
-
-    /**
-     * Spawn a new customer at the end of line (off-screen bottom-right) which will walk into its assigned slot.
-     */
-    public void spawnCustomer() {
-        // spawn position: a bit off bottom-right of area
-        int sx = area.x + area.width + spawnOffset;
-        int sy = area.y + area.height + spawnOffset;
-        Customer c = new Customer(nextCustomerId++, new Point(sx, sy));
-        // assign target to the computed slot for last position
-        int posIndex = Math.min(customers.size(), maxSlots - 1);
-        Point desired = slotPositions.get(posIndex);
-        c.setTarget(desired);
-        c.setState(Customer.State.WAITING);
-        customers.add(c);
-    }
-
-    /**
-     * Main update to be called every frame.
-     * @param dtSeconds seconds elapsed since last call
-     */
-    public void update(double dtSeconds) {
-        if (customers.isEmpty()) return;
-
-        // 1) If no one physically AT_COUNTER, move front-of-line to counter.
-        Customer front = customers.get(0);
-        boolean someoneAtCounter = false;
-        for (Customer c : customers) {
-            if (c.getState() == Customer.State.AT_COUNTER) { someoneAtCounter = true; break; }
-        }
-        if (!someoneAtCounter && front.getState() != Customer.State.MOVING_TO_COUNTER && front.getState() != Customer.State.AT_COUNTER) {
-            front.setState(Customer.State.MOVING_TO_COUNTER);
-            front.setTarget(counterPos);
-        }
-
-        // 2) Update each customer (movement and patience ticks)
-        List<Customer> toRemove = new ArrayList<>();
-        for (int i = 0; i < customers.size(); i++) {
-            Customer c = customers.get(i);
-
-            // Ensure waiting customers have their proper slot target (smooth stepping forward)
-            if (c.getState() == Customer.State.WAITING) {
-                // their slot index is i (0 is front)
-                int slotIndex = Math.min(i, slotPositions.size() - 1);
-                Point slot = slotPositions.get(slotIndex);
-                c.setTarget(slot);
-            }
-
-            c.update(dtSeconds);
-
-            // If moving to counter and has arrived physically, set AT_COUNTER & choose request
-            if (c.getState() == Customer.State.MOVING_TO_COUNTER) {
-                double dx = c.getTarget().x - c.x;
-                double dy = c.getTarget().y - c.y;
-                double dist = Math.hypot(dx, dy);
-                if (dist <= arrivalThreshold) {
-                    c.arriveAtCounterAndChooseRequest();
-                }
-            }
-
-            // Patience check -> angry leave
-            if (c.isAngry()) {
-                toRemove.add(c);
-            }
-        }
-
-        // 3) Handle removals (angry customers)
-        for (Customer c : toRemove) {
-            customers.remove(c);
-            lives = Math.max(0, lives - 1);
-            if (listener != null) listener.onCustomerLeftAngrily(c);
-            if (listener != null) listener.onLivesChanged(lives);
-            // spawn a replacement at the end (so total # in queue remains fairly constant)
-            spawnCustomer();
-        }
-
-        // 4) If queue longer than slots, extra customers should still have slot assigned at last position
-        reassignSlotTargets();
-    }
-
-    private void reassignSlotTargets() {
-        for (int i = 0; i < customers.size(); i++) {
-            Customer c = customers.get(i);
-            if (c.getState() == Customer.State.WAITING) {
-                int slotIndex = Math.min(i, slotPositions.size() - 1);
-                c.setTarget(slotPositions.get(slotIndex));
-            }
-        }
-    }
-
-    /**
-     * Mark front-of-line as paid (called by whatever handles Payment).
-     * This will set paid = true and the customer can be cleared (or continue)
-     */
-    public void markFrontPaid() {
-        if (customers.isEmpty()) return;
-        Customer front = customers.get(0);
-        if (front.getState() == Customer.State.AT_COUNTER) {
-            front.paid = true;
-            // After paying: remove customer (served) after a short delay or immediately:
-            customers.remove(0);
-            // spawn replacement to keep queue active
-            spawnCustomer();
-        }
-    }
-
-    public void draw(Graphics2D g) {
-        // draw slots (optional) as faint markers
-        g.setColor(new Color(0,0,0,40));
-        for (Point p : slotPositions) {
-            g.fillOval(p.x - 8, p.y - 8, 16, 16);
-        }
-        // draw counter marker
-        g.setColor(new Color(0,0,0,80));
-        g.fillRect(counterPos.x - 24, counterPos.y - 8, 48, 16);
-
-        // draw customers in back-to-front order for nicer overlap
-        for (int i = customers.size() - 1; i >= 0; i--) {
-            customers.get(i).draw(g);
-        }
-    }
-
-    public int getQueueSize() { return customers.size(); }
-
-    // Optional simple initialization helper: spawn n customers
-    public void spawnInitial(int n) {
-        for (int i = 0; i < n; i++) spawnCustomer();
-    }
-}
+package CanteenRushh;
+
+import java.awt.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import CanteenRushh.Customer;
+
+
+/**
+ * CustomerQueue
+ * - Manages the customers in line, in one or more lanes feeding one or more counters
+ * - The crowd lives in a CrowdStore (parallel primitive arrays, one record per customer); lanes,
+ *   counters and the patience heap hold record indices. A Customer view is only built for
+ *   drawing and for callers (listener, getFront, getCustomerAtCounter)
+ * - Spawns customers from bottom-right
+ * - Assigns waiting slots (stacked upward along the right side; longer lines snake back down
+ *   in a new column beside it while the area is wide enough, then continue below the area,
+ *   so nobody shares a slot)
+ * - Moves front customer to counter, handles arrival
+ * - Patience is event driven: each customer's deadline (when their patience runs out at the
+ *   current rate) sits in a min-heap, rescheduled only when their rate changes; update() just
+ *   pops the deadlines that have passed instead of checking every customer every frame
+ * - Who is at each counter is kept per counter, so calling the next customer and paying are
+ *   lookups instead of scans over the whole line
+ * - Optional navigation (setNavigation): customers whose straight walk is blocked follow a
+ *   flow field, toward their counter or toward their own slot while waiting, and a cheap
+ *   separation pass keeps them from stacking
+ *
+ * Lanes and counters (see AssignmentPolicy):
+ * - SHORTEST_LINE: every lane has its own counter(s); new customers join the shortest lane
+ * - SHARED_SERPENTINE: one line (the first lane) and whichever counter frees up takes its front
+ *
+ * Usage:
+ * - call update(dtSeconds) every tick
+ * - call draw(g2d) (or draw(g2d, alpha) from an interpolating loop) during paintComponent
+ * - call spawnCustomer() to add a new one at the end
+ * - call markPaid(counter) when a counter is done (markFrontPaid() for the single-counter game)
+ *
+ * Events: implement QueueEventListener for life changes or for external reaction when someone leaves.
+ */
+public class CustomerQueue {
+    public interface QueueEventListener {
+        void onCustomerLeftAngrily(Customer c);
+        void onLivesChanged(int lives);
+    }
+
+    /** How arriving customers are split over lanes and which lanes each counter serves. */
+    public enum AssignmentPolicy {
+        /** Lane i is served by counter i % counters; arrivals join the shortest lane. */
+        SHORTEST_LINE,
+        /** Everyone waits in the first lane; every counter takes the front of it. */
+        SHARED_SERPENTINE
+    }
+
+    /** One waiting line: its area, its customers in order (those sent to a counter first) and slots. */
+    private static final class Lane {
+        final Rectangle area; // area where this lane's slots are computed
+        int[] customers = new int[16]; // CrowdStore records, front first
+        int count;
+        final List<Point> slots = new ArrayList<>();
+        int slotCursor; // next serpentine position considered by ensureSlots
+        int called;     // leading customers already sent to a counter
+        FlowField[] slotFields = new FlowField[0]; // toward each slot, built when first needed
+        int leaving;     // customers marked to leave (laneIndex -1), taken out by dropLeavers
+
+        Lane(Rectangle area) {
+            this.area = new Rectangle(area);
+        }
+    }
+
+    private final Lane[] lanes;
+    private final Point[] counters; // absolute pixel positions of the counters
+    private final AssignmentPolicy policy;
+    private final CrowdStore crowd;
+    // record walking to / standing at each counter (-1 = free) and the lane they came from
+    private final int[] atCounter;
+    private final int[] atCounterLane;
+    private final int[][] counterLanes; // lanes each counter takes customers from
+    private int size; // customers in all lanes
+
+    private final int maxSlots;
+    private final QueueEventListener listener;
+    private final Random rng;
+    // scratch for records leaving this tick; reused so steady-state updates allocate nothing
+    private int[] removedScratch = new int[16];
+    private int removedCount;
+    private final Rectangle clipScratch = new Rectangle();
+    // screen area left behind by customers removed since the last markDirty
+    private final Rectangle vacated = new Rectangle();
+
+    private int nextCustomerId = 1;
+    private int lives = 3;
+    private int customerPatience = CrowdStore.DEFAULT_PATIENCE; // seconds, for customers spawned from now on
+    private final double arrivalThreshold = 8.0; // px to consider arrived at counter
+
+    // timing
+    private double globalAccumulator = 0.0;
+    private double clock = 0.0; // seconds of update time so far; patience deadlines use it
+
+    // patience deadlines: binary min-heap of (time, customer id, record, version); an entry whose
+    // version no longer matches the record's was replaced (or the customer left) and is skipped when
+    // popped. The id is kept in the entry so a reused record cannot reorder stale entries.
+    private static final double DEADLINE_EPSILON = 1e-9;
+    private double[] deadlineAt = new double[64];
+    private int[] deadlineId = new int[64];
+    private int[] deadlineRecord = new int[64];
+    private int[] deadlineVersion = new int[64];
+    private int deadlineCount;
+    private int staleDeadlines;
+
+    // navigation (optional): one flow field toward each counter, built per layout
+    private NavigationGrid navigation;
+    private FlowField[] counterFields;
+
+    // separation: customers are bucketed into SEPARATION_RADIUS cells every tick (arrays reused)
+    private static final double SEPARATION_RADIUS = 30.0;
+    private static final double SEPARATION_SPEED = 90.0; // px per second at most
+    private int bucketCols, bucketRows;
+    private int[] bucketHead = new int[0];
+    private int[] bucketStamp = new int[0];
+    private int bucketGeneration;
+    private int[] bucketNext = new int[0];
+    private int[] bucketOf = new int[0];
+    private int[] crowdScratch = new int[0];
+
+    // configuration
+    private final int slotSpacing = 72; // vertical spacing between waiting slots
+    private final int columnSpacing = 56; // horizontal spacing between serpentine columns
+    private final int customerHalfWidth = 24; // a column fits while the sprite stays inside 'area'
+    private final int slotOffsetX = -160; // shift left from right edge for slots (was -40)
+    private final int spawnOffset = 140; // spawn offset off-screen bottom-right (was 80)
+
+
+    public CustomerQueue(Rectangle queueArea, Point counterPos, int maxSlots, QueueEventListener listener) {
+        this(queueArea, counterPos, maxSlots, listener, new Random());
+    }
+
+    /**
+     * @param rng random source for every customer choice; pass a seeded Random for reproducible rounds
+     */
+    public CustomerQueue(Rectangle queueArea, Point counterPos, int maxSlots, QueueEventListener listener, Random rng) {
+        this(new Rectangle[] { queueArea }, new Point[] { counterPos }, maxSlots,
+                AssignmentPolicy.SHORTEST_LINE, listener, rng);
+    }
+
+    /**
+     * Several lanes and counters.
+     * @param laneAreas one area per lane (SHARED_SERPENTINE only uses the first)
+     * @param counterPositions one position per counter
+     * @param maxSlots length of a slot column in each lane
+     */
+    public CustomerQueue(Rectangle[] laneAreas, Point[] counterPositions, int maxSlots,
+                         AssignmentPolicy policy, QueueEventListener listener, Random rng) {
+        if (laneAreas.length == 0) throw new IllegalArgumentException("at least one lane is needed");
+        if (counterPositions.length == 0) throw new IllegalArgumentException("at least one counter is needed");
+        this.rng = rng;
+        this.policy = policy;
+        this.maxSlots = maxSlots;
+        this.listener = listener;
+        this.crowd = new CrowdStore(64, rng);
+
+        int laneCount = policy == AssignmentPolicy.SHARED_SERPENTINE ? 1 : laneAreas.length;
+        lanes = new Lane[laneCount];
+        for (int l = 0; l < laneCount; l++) lanes[l] = new Lane(laneAreas[l]);
+
+        counters = new Point[counterPositions.length];
+        for (int k = 0; k < counters.length; k++) counters[k] = new Point(counterPositions[k]);
+        atCounter = new int[counters.length];
+        Arrays.fill(atCounter, -1);
+        atCounterLane = new int[counters.length];
+        counterLanes = assignLanes(laneCount, counters.length);
+
+        computeSlots();
+    }
+
+    /**
+     * Counter k serves lane k % lanes; a lane left without a counter (more lanes than counters)
+     * is served by counter lane % counters. With one lane every counter serves it.
+     */
+    private static int[][] assignLanes(int laneCount, int counterCount) {
+        int[][] result = new int[counterCount][];
+        for (int k = 0; k < counterCount; k++) {
+            int n = 1;
+            for (int l = counterCount; l < laneCount; l++) if (l % counterCount == k) n++;
+            int[] own = new int[n];
+            own[0] = k % laneCount;
+            int i = 1;
+            for (int l = counterCount; l < laneCount; l++) if (l % counterCount == k) own[i++] = l;
+            result[k] = own;
+        }
+        return result;
+    }
+
+    private void computeSlots() {
+        for (Lane lane : lanes) {
+            lane.slots.clear();
+            lane.slotCursor = 0;
+            lane.slotFields = new FlowField[0];
+            ensureSlots(lane, maxSlots);
+        }
+    }
+
+    /**
+     * Grow a lane's slot list to at least n entries (only allocates while the line gets longer than ever).
+     * Columns of maxSlots snake through the lane area: the first goes up from its bottom-right, the next
+     * comes back down beside it, and so on while the columns fit. Longer lines carry on in bands
+     * of the same columns below the area (out the door). With navigation set, spots inside
+     * obstacles are skipped.
+     */
+    private void ensureSlots(Lane lane, int n) {
+        Rectangle area = lane.area;
+        int columnLength = Math.max(1, maxSlots);
+        int rightX = area.x + area.width + slotOffsetX; // a bit left inside area
+        int baseY = area.y + area.height - 8; // bottom inside area
+        int columns = Math.max(1, (area.x + area.width - customerHalfWidth - rightX) / columnSpacing + 1);
+        int perBand = columnLength * columns;
+        int skipped = 0;
+        while (lane.slots.size() < n) {
+            int k = lane.slotCursor++;
+            int band = k / perBand;
+            int column = (k % perBand) / columnLength;
+            int step = k % columnLength;
+            if (column % 2 == 1) step = columnLength - 1 - step;
+            int sx = rightX + column * columnSpacing;
+            int sy = band == 0
+                    ? baseY - step * slotSpacing                                 // up through the area
+                    : baseY + ((band - 1) * columnLength + step + 1) * slotSpacing; // below it
+            // a long blocked stretch is taken anyway so this always ends
+            if (navigation != null && navigation.isBlockedAt(sx, sy) && skipped++ < columnLength * 4) continue;
+            skipped = 0;
+            lane.slots.add(new Point(sx, sy));
+        }
+    }
+
+    private Point slot(Lane lane, int index) {
+        if (index >= lane.slots.size()) ensureSlots(lane, index + 1);
+        return lane.slots.get(index);
+    }
+
+    /**
+     * Route customers around the obstacles of this grid: builds a flow field toward each counter
+     * (once, here) and recomputes the slots without the ones inside obstacles. The field toward a
+     * waiting slot is only built once someone's straight walk to that slot is blocked.
+     * Pass null to go back to straight-line walking without separation.
+     */
+    public void setNavigation(NavigationGrid grid) {
+        navigation = grid;
+        counterFields = null;
+        if (grid != null) {
+            counterFields = new FlowField[counters.length];
+            for (int k = 0; k < counters.length; k++) {
+                counterFields[k] = new FlowField(grid, counters[k].x, counters[k].y);
+            }
+            bucketCols = (int) Math.ceil(grid.getCols() * grid.getCellSize() / SEPARATION_RADIUS);
+            bucketRows = (int) Math.ceil(grid.getRows() * grid.getCellSize() / SEPARATION_RADIUS);
+            bucketHead = new int[bucketCols * bucketRows];
+            bucketStamp = new int[bucketCols * bucketRows];
+            bucketGeneration = 0;
+        }
+        computeSlots();
+        reassignSlotTargets();
+    }
+
+    public void setLives(int lives) {
+        this.lives = lives;
+        if (listener != null) listener.onLivesChanged(this.lives);
+    }
+
+    public int getLives() { return lives; }
+
+    /** Seconds of patience for customers spawned from now on (those already in line keep theirs). */
+    public void setCustomerPatience(int seconds) {
+        this.customerPatience = seconds;
+    }
+
+    public int getCustomerPatience() { return customerPatience; }
+
+    /**
+     * Spawn a new customer at the end of line (off-screen bottom-right) which will walk into its assigned slot.
+     */
+    public void spawnCustomer() {
+        spawnCustomer(-1);
+    }
+
+    /**
+     * Spawn a specific character (SpriteAtlas index, -1 for random) at the end of line
+     * (of the lane the policy picks).
+     */
+    public void spawnCustomer(int spriteIndex) {
+        int laneIndex = laneForArrival();
+        Lane lane = lanes[laneIndex];
+        // spawn position: a bit off bottom-right of the lane area
+        int sx = lane.area.x + lane.area.width + spawnOffset;
+        int sy = lane.area.y + lane.area.height + spawnOffset;
+        // pick a character (unless given); same choice Customer makes for a stand-alone customer
+        if (spriteIndex < 0 || spriteIndex >= SpriteAtlas.CHARACTER_COUNT) {
+            spriteIndex = rng.nextInt(SpriteAtlas.CHARACTER_COUNT);
+        }
+        int r = crowd.add(nextCustomerId++, sx, sy, spriteIndex);
+        crowd.setMaxPatience(r, customerPatience);
+        // assign target to the slot for last position
+        Point p = slot(lane, lane.count);
+        crowd.setTarget(r, p.x, p.y);
+        if (lane.count == lane.customers.length) {
+            lane.customers = Arrays.copyOf(lane.customers, lane.count * 2);
+        }
+        lane.customers[lane.count++] = r;
+        crowd.laneIndex[r] = laneIndex;
+        size++;
+        crowd.startPatience(r, clock);
+        schedulePatience(r);
+    }
+
+    // shortest lane (first one on ties); SHARED_SERPENTINE has just one
+    private int laneForArrival() {
+        int best = 0;
+        for (int l = 1; l < lanes.length; l++) {
+            if (lanes[l].count < lanes[best].count) best = l;
+        }
+        return best;
+    }
+
+    /**
+     * Main update to be called every frame.
+     * Allocates nothing once the crowd has been at its largest size (customers leaving and their
+     * replacements reuse CrowdStore records), except when a listener or a held Customer view
+     * needs the leaver's values; benchmarks/CanteenRushh/AllocationCheck fails when that stops being true.
+     * @param dtSeconds seconds elapsed since last call
+     */
+    public void update(double dtSeconds) {
+        if (size == 0) return;
+        clock += dtSeconds;
+
+        // 1) Every free counter calls the next waiting customer from its lanes.
+        for (int k = 0; k < counters.length; k++) {
+            if (atCounter[k] < 0) callNext(k);
+        }
+
+        // 2) Update each customer's movement
+        for (Lane lane : lanes) updateLane(lane, dtSeconds);
+
+        // 3) Customers whose patience ran out by now leave angrily
+        collectAngry();
+        for (int i = 0; i < removedCount; i++) {
+            int r = removedScratch[i];
+            vacate(r);
+            lives = Math.max(0, lives - 1);
+            if (listener != null) listener.onCustomerLeftAngrily(crowd.view(r));
+            if (listener != null) listener.onLivesChanged(lives);
+            crowd.free(r);
+            // spawn a replacement at the end (so total # in queue remains fairly constant)
+            spawnCustomer();
+        }
+        removedCount = 0;
+
+        // 4) Everyone behind a removed customer moves up a slot
+        reassignSlotTargets();
+
+        // 5) Keep customers from walking through each other
+        if (navigation != null) separate(dtSeconds);
+    }
+
+    // first waiting customer among the counter's lanes; earliest arrival when several lanes have one
+    private void callNext(int counter) {
+        int bestLane = -1;
+        int best = -1;
+        for (int l : counterLanes[counter]) {
+            Lane lane = lanes[l];
+            if (lane.called >= lane.count) continue; // nobody waiting
+            int r = lane.customers[lane.called];
+            if (best < 0 || crowd.id[r] < crowd.id[best]) {
+                best = r;
+                bestLane = l;
+            }
+        }
+        if (best < 0) return;
+        lanes[bestLane].called++;
+        crowd.state[best] = CrowdStore.MOVING_TO_COUNTER;
+        crowd.setTarget(best, counters[counter].x, counters[counter].y);
+        crowd.counterIndex[best] = counter;
+        atCounter[counter] = best;
+        atCounterLane[counter] = bestLane;
+    }
+
+    private void updateLane(Lane lane, double dtSeconds) {
+        CrowdStore s = crowd;
+        int[] customers = lane.customers;
+        int n = lane.count;
+        for (int i = 0; i < n; i++) {
+            int r = customers[i];
+
+            // Ensure waiting customers have their proper slot target (smooth stepping forward)
+            if (s.state[r] == CrowdStore.WAITING) {
+                // their slot index is i (0 is front)
+                Point p = slot(lane, i);
+                s.setTarget(r, p.x, p.y);
+            }
+
+            if (counterFields != null) steer(r, lane, i);
+            s.move(r, dtSeconds);
+
+            // If moving to counter and has arrived physically, set AT_COUNTER & choose request
+            if (s.state[r] == CrowdStore.MOVING_TO_COUNTER) {
+                double dx = s.targetX[r] - s.x[r];
+                double dy = s.targetY[r] - s.y[r];
+                double dist = Math.hypot(dx, dy);
+                if (dist <= arrivalThreshold) {
+                    s.arrive(r);
+                    schedulePatience(r); // unpaid at the counter: patience drops faster
+                }
+            }
+        }
+    }
+
+    // ---------------- PATIENCE ----------------
+    /**
+     * Call after changing a customer's state or paid flag from outside the queue, so their
+     * deadline follows the new rate (ticks before the call still count at the old one).
+     */
+    public void reschedulePatience(Customer c) {
+        // only customers still in this queue have a deadline here
+        if (c.isViewOf(crowd)) schedulePatience(c.getRecord());
+    }
+
+    /** @return seconds of update time so far (the clock patience deadlines are measured on) */
+    public double getClock() { return clock; }
+
+    private void schedulePatience(int r) {
+        if (crowd.hasDeadline[r]) staleDeadlines++; // the entry it had so far
+        double at = crowd.restartPatience(r, clock);
+        pushDeadline(at, r, crowd.patienceVersion[r]);
+        crowd.hasDeadline[r] = true;
+    }
+
+    // the customer left: whatever entry they still have is stale
+    private void cancelPatience(int r) {
+        if (!crowd.hasDeadline[r]) return;
+        crowd.patienceVersion[r]++;
+        crowd.hasDeadline[r] = false;
+        staleDeadlines++;
+    }
+
+    // pops every deadline up to now; the customers are marked, then each lane is compacted once
+    private void collectAngry() {
+        CrowdStore s = crowd;
+        while (deadlineCount > 0 && deadlineAt[0] <= clock + DEADLINE_EPSILON) {
+            int r = deadlineRecord[0];
+            int version = deadlineVersion[0];
+            popDeadline();
+            if (version != s.patienceVersion[r]) {
+                staleDeadlines--;
+                continue;
+            }
+            s.syncPatience(r, clock); // shows empty patience to the listener
+            s.hasDeadline[r] = false; // no entry left
+            Lane lane = lanes[s.laneIndex[r]];
+            // frees the counter they were called to
+            if (s.counterIndex[r] >= 0) {
+                atCounter[s.counterIndex[r]] = -1;
+                s.counterIndex[r] = -1;
+                lane.called--;
+            }
+            s.laneIndex[r] = -1;
+            lane.leaving++;
+            if (removedCount == removedScratch.length) {
+                removedScratch = Arrays.copyOf(removedScratch, removedCount * 2);
+            }
+            removedScratch[removedCount++] = r;
+        }
+        if (removedCount == 0) return;
+        for (Lane lane : lanes) {
+            if (lane.leaving > 0) dropLeavers(lane);
+        }
+    }
+
+    // removes the marked customers in one in-place pass (order of the others is kept)
+    private void dropLeavers(Lane lane) {
+        int[] customers = lane.customers;
+        int n = lane.count;
+        int write = 0;
+        for (int i = 0; i < n; i++) {
+            int r = customers[i];
+            if (crowd.laneIndex[r] < 0) continue;
+            customers[write++] = r;
+        }
+        lane.count = write;
+        size -= n - write;
+        lane.leaving = 0;
+    }
+
+    private void pushDeadline(double at, int r, int version) {
+        if (staleDeadlines > 64 && staleDeadlines > deadlineCount / 2) dropStaleDeadlines();
+        if (deadlineCount == deadlineAt.length) {
+            deadlineAt = Arrays.copyOf(deadlineAt, deadlineCount * 2);
+            deadlineId = Arrays.copyOf(deadlineId, deadlineCount * 2);
+            deadlineRecord = Arrays.copyOf(deadlineRecord, deadlineCount * 2);
+            deadlineVersion = Arrays.copyOf(deadlineVersion, deadlineCount * 2);
+        }
+        int id = crowd.id[r];
+        int i = deadlineCount++;
+        while (i > 0) {
+            int p = (i - 1) >> 1;
+            if (!before(at, id, deadlineAt[p], deadlineId[p])) break;
+            moveDeadline(p, i);
+            i = p;
+        }
+        deadlineAt[i] = at;
+        deadlineId[i] = id;
+        deadlineRecord[i] = r;
+        deadlineVersion[i] = version;
+    }
+
+    private void popDeadline() {
+        int last = --deadlineCount;
+        if (last > 0) siftDown(0, deadlineAt[last], deadlineId[last], deadlineRecord[last], deadlineVersion[last]);
+    }
+
+    private void siftDown(int i, double at, int id, int r, int version) {
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= deadlineCount) break;
+            if (child + 1 < deadlineCount
+                    && before(deadlineAt[child + 1], deadlineId[child + 1], deadlineAt[child], deadlineId[child])) {
+                child++;
+            }
+            if (!before(deadlineAt[child], deadlineId[child], at, id)) break;
+            moveDeadline(child, i);
+            i = child;
+        }
+        deadlineAt[i] = at;
+        deadlineId[i] = id;
+        deadlineRecord[i] = r;
+        deadlineVersion[i] = version;
+    }
+
+    // rebuilds the heap from the live entries only (amortized: runs once stale ones pile up)
+    private void dropStaleDeadlines() {
+        int live = 0;
+        for (int i = 0; i < deadlineCount; i++) {
+            if (deadlineVersion[i] != crowd.patienceVersion[deadlineRecord[i]]) continue;
+            moveDeadline(i, live);
+            live++;
+        }
+        deadlineCount = live;
+        staleDeadlines = 0;
+        for (int i = live / 2 - 1; i >= 0; i--) {
+            siftDown(i, deadlineAt[i], deadlineId[i], deadlineRecord[i], deadlineVersion[i]);
+        }
+    }
+
+    // earlier deadline first; same time: the customer who arrived first leaves first
+    private static boolean before(double at1, int id1, double at2, int id2) {
+        return at1 < at2 || (at1 == at2 && id1 < id2);
+    }
+
+    private void moveDeadline(int from, int to) {
+        deadlineAt[to] = deadlineAt[from];
+        deadlineId[to] = deadlineId[from];
+        deadlineRecord[to] = deadlineRecord[from];
+        deadlineVersion[to] = deadlineVersion[from];
+    }
+
+    private void reassignSlotTargets() {
+        for (Lane lane : lanes) {
+            for (int i = 0; i < lane.count; i++) {
+                int r = lane.customers[i];
+                if (crowd.state[r] == CrowdStore.WAITING) {
+                    Point p = slot(lane, i);
+                    crowd.setTarget(r, p.x, p.y);
+                }
+            }
+        }
+    }
+
+    // ---------------- STEERING ----------------
+    // straight at the target while nothing is in the way, along a flow field otherwise: the
+    // counter's when called, their own slot's (index i of the lane) while waiting
+    private void steer(int r, Lane lane, int i) {
+        CrowdStore s = crowd;
+        int cx = (int) s.x[r], cy = (int) s.y[r];
+        if (navigation.lineOfSight(cx, cy, s.targetX[r], s.targetY[r])) return;
+        FlowField field = s.counterIndex[r] >= 0 ? counterFields[s.counterIndex[r]] : slotField(lane, i);
+        int cell = field.cellAt(cx, cy);
+        float dx = field.dirX(cell), dy = field.dirY(cell);
+        if (dx != 0 || dy != 0) s.steer(r, dx, dy);
+    }
+
+    // slots are fixed per layout, so each field is built once (few slots ever have a blocked approach)
+    private FlowField slotField(Lane lane, int index) {
+        if (index >= lane.slotFields.length) {
+            lane.slotFields = Arrays.copyOf(lane.slotFields, Math.max(index + 1, lane.slots.size()));
+        }
+        FlowField field = lane.slotFields[index];
+        if (field == null) {
+            Point p = slot(lane, index);
+            field = new FlowField(navigation, p.x, p.y);
+            lane.slotFields[index] = field;
+        }
+        return field;
+    }
+
+    /**
+     * Pushes apart customers closer than SEPARATION_RADIUS. Each one only looks at the customers
+     * in its own and the 8 surrounding buckets; those at the counter are not moved.
+     * Customers outside the grid (spawning, or waiting out the door) are left alone.
+     */
+    private void separate(double dtSeconds) {
+        int n = size;
+        if (crowdScratch.length < n) crowdScratch = new int[Math.max(n, crowdScratch.length * 2)];
+        int[] records = crowdScratch;
+        int filled = 0;
+        for (Lane lane : lanes) {
+            System.arraycopy(lane.customers, 0, records, filled, lane.count);
+            filled += lane.count;
+        }
+        CrowdStore s = crowd;
+        double[] xs = s.x, ys = s.y;
+
+        if (bucketNext.length < n) {
+            bucketNext = new int[Math.max(n, bucketNext.length * 2)];
+            bucketOf = new int[bucketNext.length];
+        }
+        if (++bucketGeneration == Integer.MAX_VALUE) {
+            Arrays.fill(bucketStamp, 0);
+            bucketGeneration = 1;
+        }
+        int gen = bucketGeneration;
+        for (int i = 0; i < n; i++) {
+            int r = records[i];
+            int b = bucket(xs[r], ys[r]);
+            bucketOf[i] = b;
+            if (b < 0) continue;
+            if (bucketStamp[b] != gen) {
+                bucketStamp[b] = gen;
+                bucketHead[b] = -1;
+            }
+            bucketNext[i] = bucketHead[b];
+            bucketHead[b] = i;
+        }
+
+        double maxPush = SEPARATION_SPEED * dtSeconds;
+        double r2 = SEPARATION_RADIUS * SEPARATION_RADIUS;
+        for (int i = 0; i < n; i++) {
+            int r = records[i];
+            if (bucketOf[i] < 0 || s.state[r] == CrowdStore.AT_COUNTER) continue;
+            double cx = xs[r], cy = ys[r];
+            int bx = bucketOf[i] % bucketCols, by = bucketOf[i] / bucketCols;
+            double px = 0, py = 0;
+            for (int y = Math.max(0, by - 1); y <= Math.min(bucketRows - 1, by + 1); y++) {
+                for (int x = Math.max(0, bx - 1); x <= Math.min(bucketCols - 1, bx + 1); x++) {
+                    int b = y * bucketCols + x;
+                    if (bucketStamp[b] != gen) continue;
+                    for (int j = bucketHead[b]; j >= 0; j = bucketNext[j]) {
+                        if (j == i) continue;
+                        int o = records[j];
+                        double dx = cx - xs[o], dy = cy - ys[o];
+                        double d2 = dx * dx + dy * dy;
+                        if (d2 >= r2) continue;
+                        if (d2 < 1e-6) { // same spot (e.g. just spawned): split by line order
+                            dx = i < j ? -1 : 1;
+                            dy = 0;
+                            d2 = 1;
+                        }
+                        double d = Math.sqrt(d2);
+                        double weight = (SEPARATION_RADIUS - d) / (SEPARATION_RADIUS * d);
+                        px += dx * weight;
+                        py += dy * weight;
+                    }
+                }
+            }
+            double len = Math.hypot(px, py);
+            if (len < 1e-9) continue;
+            double scale = Math.min(1.0, len) * maxPush / len;
+            double nx = cx + px * scale, ny = cy + py * scale;
+            if (navigation.isBlockedAt((int) nx, (int) ny)) continue;
+            xs[r] = nx;
+            ys[r] = ny;
+        }
+    }
+
+    // -1 outside the grid
+    private int bucket(double x, double y) {
+        if (x < 0 || y < 0) return -1;
+        int bx = (int) (x / SEPARATION_RADIUS), by = (int) (y / SEPARATION_RADIUS);
+        if (bx >= bucketCols || by >= bucketRows) return -1;
+        return by * bucketCols + bx;
+    }
+
+    // ---------------- SERVING ----------------
+    /**
+     * Mark the customer standing at a counter as paid: they leave, the counter is free for the
+     * next one (called on the next update) and a replacement joins the back of the line.
+     * @return false if nobody is standing at that counter yet
+     */
+    public boolean markPaid(int counter) {
+        int r = atCounter[counter];
+        if (r < 0 || crowd.state[r] != CrowdStore.AT_COUNTER) return false;
+        crowd.paid[r] = true;
+        Lane lane = lanes[atCounterLane[counter]];
+        // customers sent to a counter lead their lane, so this finds them within the first few
+        int i = 0;
+        while (lane.customers[i] != r) i++;
+        System.arraycopy(lane.customers, i + 1, lane.customers, i, lane.count - i - 1);
+        lane.count--;
+        lane.called--;
+        size--;
+        atCounter[counter] = -1;
+        crowd.counterIndex[r] = -1;
+        crowd.laneIndex[r] = -1;
+        cancelPatience(r);
+        vacate(r);
+        crowd.free(r);
+        // spawn replacement to keep queue active
+        spawnCustomer();
+        return true;
+    }
+
+    /**
+     * Mark front-of-line as paid (called by whatever handles Payment).
+     * This will set paid = true and the customer can be cleared (or continue).
+     * With several lanes this is the front of the first lane; use markPaid(counter) instead.
+     */
+    public void markFrontPaid() {
+        Customer front = getFront();
+        if (front != null && front.getState() == Customer.State.AT_COUNTER) {
+            markPaid(front.getCounterIndex());
+        }
+    }
+
+    // only customers that were drawn have a view (and a screen area)
+    private void vacate(int record) {
+        Customer c = crowd.existingView(record);
+        if (c == null) return;
+        Rectangle r = c.getDrawnBounds();
+        if (r.isEmpty()) return;
+        if (vacated.isEmpty()) vacated.setBounds(r);
+        else vacated.add(r);
+    }
+
+    // ---------------- DIRTY REGIONS ----------------
+    /**
+     * Adds every area that will look different in the next frame: customers that moved or
+     * changed, and the spots of customers that left.
+     */
+    public void markDirty(DirtyRegionTracker tracker, double alpha) {
+        if (!vacated.isEmpty()) {
+            tracker.add(vacated);
+            vacated.setBounds(0, 0, 0, 0);
+        }
+        for (Lane lane : lanes) {
+            for (int i = 0; i < lane.count; i++) {
+                Customer c = crowd.view(lane.customers[i]);
+                c.syncPatience(clock); // the patience bar is part of the look
+                c.markDirty(tracker, alpha);
+            }
+        }
+    }
+
+    public void draw(Graphics2D g) {
+        draw(g, 1.0);
+    }
+
+    /**
+     * Draw with customers interpolated between their last two updates.
+     * @param alpha 0 = previous position, 1 = current position
+     */
+    public void draw(Graphics2D g, double alpha) {
+        // draw slots (optional) as faint markers
+        g.setColor(new Color(0,0,0,40));
+        for (Lane lane : lanes) {
+            int markers = Math.min(lane.slots.size(), Math.max(maxSlots, lane.count));
+            for (int i = 0; i < markers; i++) {
+                Point p = lane.slots.get(i);
+                g.fillOval(p.x - 8, p.y - 8, 16, 16);
+            }
+        }
+        // draw counter markers
+        g.setColor(new Color(0,0,0,80));
+        for (Point counterPos : counters) {
+            g.fillRect(counterPos.x - 24, counterPos.y - 8, 48, 16);
+        }
+
+        // draw customers in back-to-front order for nicer overlap; skip those outside a partial repaint
+        clipScratch.setBounds(0, 0, -1, -1); // left untouched when there is no clip
+        Rectangle clip = g.getClipBounds(clipScratch);
+        boolean clipped = clip.width >= 0;
+        for (int l = lanes.length - 1; l >= 0; l--) {
+            Lane lane = lanes[l];
+            for (int i = lane.count - 1; i >= 0; i--) {
+                Customer c = crowd.view(lane.customers[i]);
+                Rectangle b = c.getDrawnBounds();
+                if (clipped && !b.isEmpty() && !b.intersects(clip)) continue;
+                c.syncPatience(clock); // patience is only brought up to date for drawing
+                c.draw(g, alpha);
+            }
+        }
+    }
+
+    public int getQueueSize() { return size; }
+
+    /** @return the front-of-line customer (of the first lane), or null if it is empty */
+    public Customer getFront() {
+        Lane first = lanes[0];
+        return first.count == 0 ? null : crowd.view(first.customers[0]);
+    }
+
+    public int getCounterCount() { return counters.length; }
+
+    public int getLaneCount() { return lanes.length; }
+
+    public int getLaneSize(int lane) { return lanes[lane].count; }
+
+    public AssignmentPolicy getPolicy() { return policy; }
+
+    /** @return the customer walking to or standing at the counter, or null if it is free */
+    public Customer getCustomerAtCounter(int counter) {
+        int r = atCounter[counter];
+        return r < 0 ? null : crowd.view(r);
+    }
+
+    // Optional simple initialization helper: spawn n customers
+    public void spawnInitial(int n) {
+        for (int i = 0; i < n; i++) spawnCustomer();
+    }
+}
@@ -0,0 +1,112 @@
+package CanteenRushh;
+
+import javax.swing.JComponent;
+import javax.swing.SwingUtilities;
+import java.awt.Rectangle;
+import java.util.Arrays;
+
+/**
+ * DirtyRegionTracker - collects the screen areas that changed since the last frame.
+ * - The component is partitioned into fixed tiles; add() marks every tile a box touches
+ * - flush() turns the marked tiles into a few rectangles and repaints only those (runs per row,
+ *   merged down while the span stays the same), so two far-apart movers do not repaint
+ *   everything between them
+ * - markAll() (first frame, resize, external damage) falls back to one full repaint
+ *
+ * Used on the passive (paintComponent) path only: active rendering always presents full frames.
+ */
+public class DirtyRegionTracker {
+
+    private static final int TILE = 32;
+
+    private int width, height;
+    private int cols, rows;
+    private boolean[] tiles = new boolean[0];
+    private boolean anyDirty;
+    private boolean allDirty = true;
+
+    // reused between flushes
+    private final Rectangle run = new Rectangle();
+    private final Rectangle pending = new Rectangle();
+
+    /** Call every frame; a changed size dirties everything. */
+    public void setSize(int width, int height) {
+        if (width == this.width && height == this.height) return;
+        this.width = width;
+        this.height = height;
+        cols = (width + TILE - 1) / TILE;
+        rows = (height + TILE - 1) / TILE;
+        if (tiles.length < cols * rows) tiles = new boolean[cols * rows];
+        markAll();
+    }
+
+    public void markAll() { allDirty = true; }
+
+    public void add(Rectangle r) {
+        add(r.x, r.y, r.width, r.height);
+    }
+
+    public void add(int x, int y, int w, int h) {
+        if (allDirty || w <= 0 || h <= 0) return;
+        int c0 = Math.max(0, x / TILE), c1 = Math.min(cols - 1, (x + w - 1) / TILE);
+        int r0 = Math.max(0, y / TILE), r1 = Math.min(rows - 1, (y + h - 1) / TILE);
+        if (x + w <= 0 || y + h <= 0 || c0 > c1 || r0 > r1) return;
+        for (int r = r0; r <= r1; r++) {
+            int base = r * cols;
+            for (int c = c0; c <= c1; c++) tiles[base + c] = true;
+        }
+        anyDirty = true;
+    }
+
+    public boolean isEmpty() { return !allDirty && !anyDirty; }
+
+    /**
+     * Repaints the dirty area of the component and clears it.
+     * On the EDT the regions are painted immediately (the game loop is already there).
+     */
+    public void flush(JComponent target) {
+        if (allDirty) {
+            allDirty = false;
+            clearTiles();
+            target.repaint();
+            return;
+        }
+        if (!anyDirty) return;
+
+        boolean immediate = SwingUtilities.isEventDispatchThread();
+        pending.setBounds(0, 0, 0, 0);
+        for (int r = 0; r < rows; r++) {
+            int base = r * cols;
+            int c = 0;
+            while (c < cols) {
+                if (!tiles[base + c]) { c++; continue; }
+                int start = c;
+                while (c < cols && tiles[base + c]) tiles[base + c++] = false;
+                run.setBounds(start * TILE, r * TILE, (c - start) * TILE, TILE);
+
+                // a run directly below the pending one with the same span extends it
+                if (!pending.isEmpty() && pending.x == run.x && pending.width == run.width
+                        && pending.y + pending.height == run.y) {
+                    pending.height += TILE;
+                } else {
+                    emit(target, pending, immediate);
+                    pending.setBounds(run);
+                }
+            }
+        }
+        emit(target, pending, immediate);
+        anyDirty = false;
+    }
+
+    private void emit(JComponent target, Rectangle r, boolean immediate) {
+        if (r.isEmpty()) return;
+        if (immediate) target.paintImmediately(r.x, r.y, r.width, r.height);
+        else target.repaint(r.x, r.y, r.width, r.height);
+        r.setBounds(0, 0, 0, 0);
+    }
+
+    private void clearTiles() {
+        Arrays.fill(tiles, false);
+        anyDirty = false;
+    }
+}
@@ -0,0 +1,70 @@
+package CanteenRushh;
+
+/**
+ * FlowField - walking direction toward one goal for every cell of a NavigationGrid.
+ * - Built once per layout from the grid's integration field (cost to the goal per cell)
+ * - Each cell points at its cheapest neighbour, so any number of walkers can follow it with
+ *   one array lookup each instead of running their own pathfinding
+ * - Blocked cells point out of the obstacle (toward the cheapest neighbour), which also pulls
+ *   walkers pushed into an obstacle's clearance back out
+ *
+ * Usage:
+ *   FlowField toCounter = new FlowField(grid, counterX, counterY);
+ *   int cell = toCounter.cellAt(x, y);
+ *   x += toCounter.dirX(cell) * step; y += toCounter.dirY(cell) * step;
+ */
+public class FlowField {
+
+    private static final int[] DX = { 1, -1, 0, 0, 1, 1, -1, -1 };
+    private static final int[] DY = { 0, 0, 1, -1, 1, -1, 1, -1 };
+    private static final float DIAGONAL = (float) Math.sqrt(0.5);
+
+    private final NavigationGrid grid;
+    private final int[] cost;
+    // unit direction per cell, (0, 0) at the goal and where nothing leads anywhere
+    private final float[] dirX, dirY;
+
+    public FlowField(NavigationGrid grid, int goalX, int goalY) {
+        this.grid = grid;
+        this.cost = grid.integrationField(goalX, goalY);
+        int cols = grid.getCols(), rows = grid.getRows();
+        dirX = new float[cols * rows];
+        dirY = new float[cols * rows];
+
+        for (int cy = 0; cy < rows; cy++) {
+            for (int cx = 0; cx < cols; cx++) {
+                int cell = cy * cols + cx;
+                boolean free = !grid.isBlockedCell(cell);
+                int best = -1, bestCost = cost[cell];
+                for (int d = 0; d < 8; d++) {
+                    int nx = cx + DX[d], ny = cy + DY[d];
+                    if (nx < 0 || ny < 0 || nx >= cols || ny >= rows) continue;
+                    int next = ny * cols + nx;
+                    // same corner rule as the path search, except when escaping an obstacle
+                    if (free && d >= 4 && (grid.isBlockedCell(cy * cols + nx) || grid.isBlockedCell(ny * cols + cx))) continue;
+                    if (cost[next] < bestCost) {
+                        bestCost = cost[next];
+                        best = d;
+                    }
+                }
+                if (best >= 0) {
+                    float scale = best >= 4 ? DIAGONAL : 1f;
+                    dirX[cell] = DX[best] * scale;
+                    dirY[cell] = DY[best] * scale;
+                }
+            }
+        }
+    }
+
+    public NavigationGrid getGrid() { return grid; }
+
+    /** @return the cell containing the pixel, clamped to the grid */
+    public int cellAt(int px, int py) { return grid.cellAt(px, py); }
+
+    public float dirX(int cell) { return dirX[cell]; }
+
+    public float dirY(int cell) { return dirY[cell]; }
+
+    /** Walking cost to the goal (10 per straight cell), Integer.MAX_VALUE if there is no way. */
+    public int costAt(int cell) { return cost[cell]; }
+}
@@ -0,0 +1,56 @@
+package CanteenRushh;
+
+import java.awt.Font;
+import java.io.File;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * FontRegistry - loads the menu's pixel font once and caches every derived size.
+ * - The font file is looked up a single time; a missing file falls back to bold Monospaced
+ * - pixelFont(size) after the first call per size is a map lookup (no I/O, no exceptions)
+ */
+public final class FontRegistry {
+
+    // font file tried by the menu (falls back when absent)
+    private static final String PIXEL_FONT_FILE = "Courier New";
+
+    private static final Map<Float, Font> PIXEL_SIZES = new ConcurrentHashMap<>();
+    private static volatile Font pixelBase;
+
+    private FontRegistry() {}
+
+    public static Font pixelFont(float size) {
+        Font f = PIXEL_SIZES.get(size);
+        if (f == null) {
+            f = basePixelFont().deriveFont(size);
+            PIXEL_SIZES.put(size, f);
+        }
+        return f;
+    }
+
+    private static Font basePixelFont() {
+        Font base = pixelBase;
+        if (base == null) {
+            synchronized (FontRegistry.class) {
+                base = pixelBase;
+                if (base == null) {
+                    base = loadPixelBase();
+                    pixelBase = base;
+                }
+            }
+        }
+        return base;
+    }
+
+    private static Font loadPixelBase() {
+        try {
+            File file = new File(PIXEL_FONT_FILE);
+            if (file.isFile()) {
+                return Font.createFont(Font.TRUETYPE_FONT, file);
+            }
+        } catch (Exception ignored) {}
+        System.out.println("Pixel font not found, using default.");
+        return new Font("Monospaced", Font.BOLD, 1);
+    }
+}
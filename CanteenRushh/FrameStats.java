@@ -0,0 +1,248 @@
+package CanteenRushh;
+
+import java.awt.*;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * FrameStats - timing instrumentation for a game loop.
+ * - Records update duration, paint duration, frame-to-frame jitter, queue size and the bytes
+ *   allocated inside update/paint (per thread, via com.sun.management.ThreadMXBean)
+ * - Keeps the last SAMPLES values of each in ring buffers and reports p50/p99
+ * - Emits JFR events (canteenrush.Update / canteenrush.Paint) while a recording is running;
+ *   with no recording nothing is allocated per frame
+ * - drawOverlay() shows the numbers in-game (the text is refreshed a few times per second)
+ *
+ * Update and paint may run on different threads: each side only writes its own fields.
+ *
+ * Usage:
+ *   stats.beginUpdate(); ...; stats.endUpdate(queueSize);
+ *   stats.beginPaint();  ...; stats.endPaint();
+ *   JFR: java -XX:StartFlightRecording=filename=rush.jfr ... then `jfr print --events canteenrush.* rush.jfr`
+ */
+public class FrameStats {
+
+    // ---------------- JFR EVENTS ----------------
+    @Name("canteenrush.Update")
+    @Label("Game Update")
+    @Category("Canteen Rush")
+    @Description("One fixed simulation step")
+    static class UpdateEvent extends Event {
+        @Label("Source") String source;
+        @Label("Queue Size") int queueSize;
+        @Label("Allocated") @DataAmount long allocatedBytes;
+    }
+
+    @Name("canteenrush.Paint")
+    @Label("Game Paint")
+    @Category("Canteen Rush")
+    @Description("Rendering of one frame")
+    static class PaintEvent extends Event {
+        @Label("Source") String source;
+        @Label("Frame Interval") @Timespan long frameIntervalNanos;
+        @Label("Allocated") @DataAmount long allocatedBytes;
+    }
+
+    private static final int SAMPLES = 256;
+    private static final long OVERLAY_REFRESH_NANOS = 250_000_000L;
+    private static final Font OVERLAY_FONT = new Font("Monospaced", Font.PLAIN, 12);
+    private static final Color OVERLAY_BACK = new Color(0, 0, 0, 170);
+    public static final int OVERLAY_W = 300, OVERLAY_H = 96;
+
+    private static final com.sun.management.ThreadMXBean THREADS = allocationBean();
+
+    private final String source;
+    private final long targetFrameNanos;
+
+    // update side
+    private final long[] updateNanos = new long[SAMPLES];
+    private int updateCount;
+    private volatile long updateBytesTotal;
+    private long updateStart, updateAllocStart;
+    private volatile int queueSize;
+    private final UpdateEvent updateProbe = new UpdateEvent();
+    private UpdateEvent updateEvent;
+
+    // paint side
+    private final long[] paintNanos = new long[SAMPLES];
+    private long paintBytesTotal;
+    private final long[] jitterNanos = new long[SAMPLES];
+    private int paintCount;
+    private long paintStart, paintAllocStart, lastPaintStart;
+    private final PaintEvent paintProbe = new PaintEvent();
+    private PaintEvent paintEvent;
+
+    // overlay (paint thread)
+    private final long[] sortScratch = new long[SAMPLES];
+    private final String[] overlayLines = { "", "", "", "", "" };
+    private long overlayRefreshed;
+    private long rateSampledAt, rateSampledBytes;
+    private volatile long allocationRate = -1;
+
+    /**
+     * @param source    shown in the overlay and JFR events (e.g. "GamePanel")
+     * @param targetFps intended frame rate, jitter is the distance from its frame interval
+     */
+    public FrameStats(String source, double targetFps) {
+        this.source = source;
+        this.targetFrameNanos = (long) (1_000_000_000.0 / targetFps);
+    }
+
+    // ---------------- RECORDING ----------------
+    public void beginUpdate() {
+        if (updateProbe.isEnabled()) {
+            updateEvent = new UpdateEvent();
+            updateEvent.begin();
+        }
+        updateAllocStart = allocatedBytes();
+        updateStart = System.nanoTime();
+    }
+
+    public void endUpdate(int queueSize) {
+        long nanos = System.nanoTime() - updateStart;
+        long bytes = allocatedSince(updateAllocStart);
+        int i = updateCount % SAMPLES;
+        updateNanos[i] = nanos;
+        updateCount++;
+        updateBytesTotal += bytes;
+        this.queueSize = queueSize;
+
+        UpdateEvent e = updateEvent;
+        if (e != null) {
+            updateEvent = null;
+            e.source = source;
+            e.queueSize = queueSize;
+            e.allocatedBytes = bytes;
+            e.commit();
+        }
+    }
+
+    public void beginPaint() {
+        if (paintProbe.isEnabled()) {
+            paintEvent = new PaintEvent();
+            paintEvent.begin();
+        }
+        paintAllocStart = allocatedBytes();
+        paintStart = System.nanoTime();
+    }
+
+    public void endPaint() {
+        long nanos = System.nanoTime() - paintStart;
+        long bytes = allocatedSince(paintAllocStart);
+        long interval = lastPaintStart == 0 ? targetFrameNanos : paintStart - lastPaintStart;
+        lastPaintStart = paintStart;
+
+        int i = paintCount % SAMPLES;
+        paintNanos[i] = nanos;
+        paintBytesTotal += bytes;
+        jitterNanos[i] = Math.abs(interval - targetFrameNanos);
+        paintCount++;
+
+        PaintEvent e = paintEvent;
+        if (e != null) {
+            paintEvent = null;
+            e.source = source;
+            e.frameIntervalNanos = interval;
+            e.allocatedBytes = bytes;
+            e.commit();
+        }
+    }
+
+    // ---------------- QUERIES ----------------
+    /** @param p 0..1, e.g. 0.99; in nanoseconds (0 when nothing has been recorded) */
+    public long updatePercentile(double p) { return percentile(updateNanos, updateCount, p); }
+
+    public long paintPercentile(double p) { return percentile(paintNanos, paintCount, p); }
+
+    public long jitterPercentile(double p) { return percentile(jitterNanos, paintCount, p); }
+
+    /**
+     * Bytes allocated inside update and paint per second, as of the last overlay refresh.
+     * -1 before the first refresh or if the JVM cannot measure per-thread allocation.
+     */
+    public long allocationBytesPerSecond() { return allocationRate; }
+
+    public int getQueueSize() { return queueSize; }
+
+    // ---------------- OVERLAY ----------------
+    /** Draws the overlay box at (x, y), OVERLAY_W x OVERLAY_H. Call from the paint thread. */
+    public void drawOverlay(Graphics2D g, int x, int y) {
+        long now = System.nanoTime();
+        if (now - overlayRefreshed > OVERLAY_REFRESH_NANOS) {
+            overlayRefreshed = now;
+            refreshOverlay(now);
+        }
+        g.setColor(OVERLAY_BACK);
+        g.fillRect(x, y, OVERLAY_W, OVERLAY_H);
+        g.setColor(Color.WHITE);
+        g.setFont(OVERLAY_FONT);
+        for (int i = 0; i < overlayLines.length; i++) {
+            g.drawString(overlayLines[i], x + 8, y + 18 + i * 17);
+        }
+    }
+
+    private void refreshOverlay(long now) {
+        if (THREADS != null) {
+            long total = paintBytesTotal + updateBytesTotal;
+            if (rateSampledAt != 0) {
+                allocationRate = (total - rateSampledBytes) * 1_000_000_000L / Math.max(1, now - rateSampledAt);
+            }
+            rateSampledAt = now;
+            rateSampledBytes = total;
+        }
+
+        overlayLines[0] = source + "  (F3 hides)";
+        overlayLines[1] = String.format("update p50 %.2f  p99 %.2f ms", ms(updatePercentile(0.5)), ms(updatePercentile(0.99)));
+        overlayLines[2] = String.format("paint  p50 %.2f  p99 %.2f ms", ms(paintPercentile(0.5)), ms(paintPercentile(0.99)));
+        overlayLines[3] = String.format("jitter p50 %.2f  p99 %.2f ms", ms(jitterPercentile(0.5)), ms(jitterPercentile(0.99)));
+        long alloc = allocationBytesPerSecond();
+        overlayLines[4] = "queue " + queueSize + "   alloc " + (alloc < 0 ? "n/a" : (alloc / 1024) + " KB/s");
+    }
+
+    // ---------------- HELPERS ----------------
+    // sorts into a shared scratch array
+    private synchronized long percentile(long[] ring, int count, double p) {
+        int n = Math.min(count, SAMPLES);
+        if (n == 0) return 0;
+        System.arraycopy(ring, 0, sortScratch, 0, n);
+        Arrays.sort(sortScratch, 0, n);
+        int idx = (int) Math.min(n - 1, Math.round(p * (n - 1)));
+        return sortScratch[idx];
+    }
+
+    private static double ms(long nanos) { return nanos / 1_000_000.0; }
+
+    /** @return bytes allocated by the calling thread so far (0 when canMeasureAllocation() is false) */
+    static long allocatedBytes() {
+        // getCurrentThreadAllocatedBytes would be shorter but needs Java 14
+        return THREADS != null ? THREADS.getThreadAllocatedBytes(Thread.currentThread().getId()) : 0;
+    }
+
+    /** @return true if this JVM counts allocated bytes per thread */
+    static boolean canMeasureAllocation() { return THREADS != null; }
+
+    private static long allocatedSince(long start) {
+        return THREADS != null ? allocatedBytes() - start : 0;
+    }
+
+    private static com.sun.management.ThreadMXBean allocationBean() {
+        try {
+            java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+            if (bean instanceof com.sun.management.ThreadMXBean) {
+                com.sun.management.ThreadMXBean sun = (com.sun.management.ThreadMXBean) bean;
+                if (sun.isThreadAllocatedMemorySupported()) {
+                    sun.setThreadAllocatedMemoryEnabled(true);
+                    return sun;
+                }
+            }
+        } catch (Throwable ignored) {}
+        return null;
+    }
+}
@@ -0,0 +1,163 @@
+package CanteenRushh;
+
+import javax.swing.SwingUtilities;
+
+/**
+ * GameLoop - fixed-timestep simulation with interpolated rendering.
+ * - update(dtSeconds) is always called with the same step, however fast or slow frames are
+ * - render(alpha) gets how far (0..1) the clock is between the last two updates
+ * - a slow frame runs at most maxCatchUpSteps updates; older backlog is dropped
+ * - frames are paced to targetFps on a dedicated thread (0 = unpaced)
+ *
+ * By default each frame's updates and render are run on the EDT (invokeAndWait), so
+ * listeners can share state with Swing painting and input without extra locking.
+ */
+public class GameLoop implements Runnable {
+
+    public interface Listener {
+        /** Advance the simulation by exactly one fixed step. */
+        void update(double dtSeconds);
+
+        /** Present a frame; alpha is the fraction of a step since the last update. */
+        void render(double alpha);
+    }
+
+    // a frame longer than this (breakpoint, window drag, GC) is treated as this long
+    private static final long MAX_FRAME_NANOS = 250_000_000L;
+    // sleep() overshoots; spin-yield for the last stretch before a frame deadline
+    private static final long SPIN_NANOS = 1_000_000L;
+
+    private final Listener listener;
+    private final long stepNanos;
+    private final double stepSeconds;
+    private final int maxCatchUpSteps;
+    private final boolean runOnEdt;
+    private volatile long frameNanos;
+
+    private volatile Thread thread;
+
+    // handed to the EDT each frame; reused so a frame allocates no task object
+    private int pendingSteps;
+    private double pendingAlpha;
+    private final Runnable frameTask = this::runFrame;
+
+    public GameLoop(Listener listener, double updatesPerSecond, int targetFps, int maxCatchUpSteps) {
+        this(listener, updatesPerSecond, targetFps, maxCatchUpSteps, true);
+    }
+
+    /**
+     * @param updatesPerSecond fixed simulation rate
+     * @param targetFps        render rate to pace to; 0 renders as fast as possible
+     * @param maxCatchUpSteps  most updates run for a single frame
+     * @param runOnEdt         run update/render on the EDT instead of the loop thread
+     */
+    public GameLoop(Listener listener, double updatesPerSecond, int targetFps, int maxCatchUpSteps, boolean runOnEdt) {
+        if (updatesPerSecond <= 0) throw new IllegalArgumentException("updatesPerSecond must be > 0");
+        this.listener = listener;
+        this.stepNanos = (long) (1_000_000_000L / updatesPerSecond);
+        this.stepSeconds = stepNanos / 1_000_000_000.0;
+        this.maxCatchUpSteps = Math.max(1, maxCatchUpSteps);
+        this.runOnEdt = runOnEdt;
+        setTargetFps(targetFps);
+    }
+
+    public double getStepSeconds() { return stepSeconds; }
+
+    public void setTargetFps(int fps) {
+        this.frameNanos = fps > 0 ? 1_000_000_000L / fps : 0L;
+    }
+
+    public boolean isRunning() { return thread != null; }
+
+    public synchronized void start() {
+        if (thread != null) return;
+        Thread t = new Thread(this, "GameLoop-Thread");
+        t.setDaemon(true);
+        thread = t;
+        t.start();
+    }
+
+    public synchronized void stop() {
+        Thread t = thread;
+        thread = null;
+        if (t != null) t.interrupt();
+    }
+
+    @Override
+    public void run() {
+        Thread self = Thread.currentThread();
+        long previous = System.nanoTime();
+        long accumulator = 0;
+        long nextFrame = previous;
+
+        while (thread == self) {
+            long now = System.nanoTime();
+            long elapsed = Math.min(now - previous, MAX_FRAME_NANOS);
+            previous = now;
+            accumulator += elapsed;
+
+            int steps = 0;
+            while (accumulator >= stepNanos && steps < maxCatchUpSteps) {
+                accumulator -= stepNanos;
+                steps++;
+            }
+            // could not catch up: drop the backlog instead of spiralling
+            if (accumulator >= stepNanos) accumulator %= stepNanos;
+
+            pendingSteps = steps;
+            pendingAlpha = accumulator / (double) stepNanos;
+            if (!dispatchFrame()) break;
+
+            long frame = frameNanos;
+            if (frame > 0) {
+                nextFrame += frame;
+                long wait = nextFrame - System.nanoTime();
+                if (wait < -frame) {
+                    // fell far behind: resync instead of rendering a burst of frames
+                    nextFrame = System.nanoTime();
+                } else if (!waitUntil(nextFrame, wait)) {
+                    break;
+                }
+            } else {
+                Thread.yield();
+            }
+        }
+    }
+
+    private boolean dispatchFrame() {
+        if (!runOnEdt || SwingUtilities.isEventDispatchThread()) {
+            runFrame();
+            return true;
+        }
+        try {
+            SwingUtilities.invokeAndWait(frameTask);
+            return true;
+        } catch (InterruptedException e) {
+            return false;
+        } catch (Exception e) {
+            // keep the loop alive if a listener throws
+            e.printStackTrace();
+            return true;
+        }
+    }
+
+    private void runFrame() {
+        for (int i = 0; i < pendingSteps; i++) {
+            listener.update(stepSeconds);
+        }
+        listener.render(pendingAlpha);
+    }
+
+    private boolean waitUntil(long deadline, long wait) {
+        try {
+            if (wait > SPIN_NANOS) {
+                long sleep = wait - SPIN_NANOS;
+                Thread.sleep(sleep / 1_000_000L, (int) (sleep % 1_000_000L));
+            }
+            while (System.nanoTime() < deadline) Thread.yield();
+            return true;
+        } catch (InterruptedException e) {
+            return false;
+        }
+    }
+}
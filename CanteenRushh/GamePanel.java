@@ -1,98 +1,209 @@
-package CanteenRushh;
-
-import javax.swing.*;
-import java.awt.*;
-import java.awt.event.*;
-import java.util.ArrayList;
-
-import customers.CUSTOMER;
-import customers.CustomerQueue;
-
-public class GamePanel extends JPanel implements ActionListener, MouseListener {
-
-    private Timer timer;
-    private Player player;
-
-    private Image background;
-    private Image counterImage;
-    private Image tableImage;
-
-    private ArrayList<Rectangle> tables = new ArrayList<>();
-
-    private CustomerQueue customerQueue = new CustomerQueue();
-
-    public GamePanel() {
-
-        try {
-            background = new ImageIcon(getClass().getResource("/tile/bg (2).png")).getImage();
-            counterImage = new ImageIcon(getClass().getResource("/tile/COUNTERNI.png")).getImage();
-            tableImage = new ImageIcon(getClass().getResource("/tableres/tablechair.png")).getImage();
-        } catch (Exception e) {
-            System.out.println("Missing background assets!");
-        }
-
-        player = new Player();
-
-        // TABLE POSITIONS (LIKE YOUR IMAGE)
-        tables.add(new Rectangle(200, 350, 180, 120));
-        tables.add(new Rectangle(500, 350, 180, 120));
-        tables.add(new Rectangle(200, 550, 180, 120));
-        tables.add(new Rectangle(500, 550, 180, 120));
-
-        // QUEUE POSITION (LEFT SIDE)
-        customerQueue.setQueueStart(60, 180);
-
-        addMouseListener(this);
-        setFocusable(true);
-
-        timer = new Timer(20, this);
-        timer.start();
-    }
-
-    @Override
-    public void paintComponent(Graphics g) {
-        super.paintComponent(g);
-
-        // BACKGROUND
-        g.drawImage(background, 0, 0, getWidth(), getHeight(), null);
-
-        // COUNTER
-        g.drawImage(counterImage, 100, 90, 700, 150, null);
-
-        // TABLES
-        for (Rectangle r : tables) {
-            g.drawImage(tableImage, r.x, r.y, r.width, r.height, null);
-        }
-
-        // CUSTOMERS
-        for (CUSTOMER c : customerQueue.all()) {
-            c.draw(g);
-        }
-
-        // PLAYER
-        player.draw(g);
-    }
-
-    @Override
-    public void actionPerformed(ActionEvent e) {
-        player.update();
-        repaint();
-    }
-
-    @Override
-    public void mouseClicked(MouseEvent e) {
-        player.moveTo(e.getX(), e.getY());
-    }
-
-    public void mousePressed(MouseEvent e) {}
-    public void mouseReleased(MouseEvent e) {}
-    public void mouseEntered(MouseEvent e) {}
-    public void mouseExited(MouseEvent e) {}
-
-    // ✅ CALLED BY MAIN LAUNCHER
-    public void spawnCustomerByName(String name) {
-        CUSTOMER c = new CUSTOMER(name, 0, 0);
-        customerQueue.enqueue(c);
-        repaint();
-    }
-}
+package CanteenRushh;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.*;
+import java.util.ArrayList;
+
+public class GamePanel extends JPanel implements GameLoop.Listener, MouseListener {
+
+    // fixed simulation step (the old 20 ms Timer rate); movement itself is time-based
+    private static final double UPDATES_PER_SECOND = 50.0;
+    private static final int TARGET_FPS = 60;
+    private static final int MAX_CATCH_UP_STEPS = 5;
+
+    private final GameLoop gameLoop;
+    private double renderAlpha = 1.0;
+    // null when painting passively through paintComponent
+    private ActiveRenderCanvas activeCanvas;
+    private Player player;
+
+    private static final Rectangle COUNTER_BOUNDS = new Rectangle(100, 90, 700, 150);
+
+    private ArrayList<Rectangle> tables = new ArrayList<>();
+
+    // NAVIGATION: occupancy grid of the counter and tables (player paths, customer flow field),
+    // rebuilt when the panel size changes
+    private static final int NAV_CELL = 20, NAV_CLEARANCE = 8;
+    private static final int NAV_MIN_W = 1000, NAV_MIN_H = 750;
+    private NavigationGrid navGrid;
+
+    // background, counter and tables baked once per size/layout (only entities are drawn per frame)
+    private final StaticSceneLayer sceneLayer = new StaticSceneLayer();
+    // passive path: repaint only what moved
+    private final DirtyRegionTracker dirtyRegions = new DirtyRegionTracker();
+
+    private CustomerQueue customerQueue;
+
+    // INSTRUMENTATION: always recorded (and sent to JFR when recording), overlay toggled with F3
+    private static final int STATS_X = 10, STATS_Y = 10;
+    private final FrameStats frameStats = new FrameStats("GamePanel", TARGET_FPS);
+    private boolean showStats = false;
+
+    public GamePanel() {
+
+        // shared prop images; usually decoded while the loading screen was up
+        PropRegistry.request(PropRegistry.BACKGROUND, PropRegistry.COUNTER, PropRegistry.TABLE);
+        Image background = PropRegistry.image(PropRegistry.BACKGROUND);
+        Image counterImage = PropRegistry.image(PropRegistry.COUNTER);
+        Image tableImage = PropRegistry.image(PropRegistry.TABLE);
+        if (background == null || counterImage == null || tableImage == null) {
+            System.out.println("Missing background assets!");
+        }
+
+        player = new Player();
+
+        // TABLE POSITIONS (LIKE YOUR IMAGE)
+        tables.add(new Rectangle(200, 350, 180, 120));
+        tables.add(new Rectangle(500, 350, 180, 120));
+        tables.add(new Rectangle(200, 550, 180, 120));
+        tables.add(new Rectangle(500, 550, 180, 120));
+
+        // STATIC LAYER: background, counter, then tables
+        sceneLayer.setBackground(background);
+        sceneLayer.addProp(counterImage, COUNTER_BOUNDS);
+        for (Rectangle r : tables) {
+            sceneLayer.addProp(tableImage, r);
+        }
+
+        // QUEUE POSITION (LEFT SIDE): slots at x = 60 stacked up from y = 692, counter spot in front of the counter
+        customerQueue = new CustomerQueue(new Rectangle(0, 180, 220, 520), new Point(160, 260), 6, null);
+
+        addMouseListener(this);
+        setFocusable(true);
+
+        getInputMap(WHEN_IN_FOCUSED_WINDOW).put(KeyStroke.getKeyStroke(KeyEvent.VK_F3, 0), "toggleStats");
+        getActionMap().put("toggleStats", new AbstractAction() {
+            public void actionPerformed(ActionEvent e) {
+                showStats = !showStats;
+                dirtyRegions.add(STATS_X, STATS_Y, FrameStats.OVERLAY_W, FrameStats.OVERLAY_H);
+            }
+        });
+
+        // ACTIVE RENDERING: the loop presents frames through a BufferStrategy when possible
+        if (ActiveRenderCanvas.isSupported()) {
+            setLayout(new BorderLayout());
+            activeCanvas = new ActiveRenderCanvas(this::drawScene);
+            activeCanvas.addMouseListener(this);
+            activeCanvas.setFocusable(false); // keep keyboard focus (F3) on the panel
+            add(activeCanvas, BorderLayout.CENTER);
+        }
+
+        gameLoop = new GameLoop(this, UPDATES_PER_SECOND, TARGET_FPS, MAX_CATCH_UP_STEPS);
+    }
+
+    @Override
+    public void addNotify() {
+        super.addNotify();
+        gameLoop.start();
+    }
+
+    @Override
+    public void removeNotify() {
+        gameLoop.stop();
+        super.removeNotify();
+    }
+
+    @Override
+    public void paintComponent(Graphics g) {
+        super.paintComponent(g);
+        if (activeCanvas != null) return; // the canvas covers the panel
+
+        drawScene((Graphics2D) g, getWidth(), getHeight());
+    }
+
+    private void drawScene(Graphics2D g, int width, int height) {
+        // BACKGROUND, COUNTER, TABLES
+        g.drawImage(sceneLayer.get(width, height, getGraphicsConfiguration()), 0, 0, null);
+
+        // CUSTOMERS
+        customerQueue.draw(g, renderAlpha);
+
+        // PLAYER
+        player.draw(g, renderAlpha);
+
+        if (showStats) frameStats.drawOverlay(g, STATS_X, STATS_Y);
+    }
+
+    // ---------------- GAME LOOP (runs on the EDT) ----------------
+    @Override
+    public void update(double dtSeconds) {
+        frameStats.beginUpdate();
+        navigation(); // rebuilds (and re-routes the queue) only when the panel size changed
+        player.update(dtSeconds);
+        customerQueue.update(dtSeconds);
+        frameStats.endUpdate(customerQueue.getQueueSize());
+    }
+
+    @Override
+    public void render(double alpha) {
+        frameStats.beginPaint();
+        try {
+            renderFrame(alpha);
+        } finally {
+            frameStats.endPaint();
+        }
+    }
+
+    private void renderFrame(double alpha) {
+        renderAlpha = alpha;
+        if (activeCanvas != null) {
+            if (activeCanvas.renderFrame()) return;
+            if (activeCanvas.hasFailed()) fallBackToPassive();
+        }
+
+        // passive: repaint the boxes of whatever moved or changed, old and new position
+        dirtyRegions.setSize(getWidth(), getHeight());
+        player.markDirty(dirtyRegions, alpha);
+        customerQueue.markDirty(dirtyRegions, alpha);
+        if (showStats) dirtyRegions.add(STATS_X, STATS_Y, FrameStats.OVERLAY_W, FrameStats.OVERLAY_H);
+        dirtyRegions.flush(this);
+    }
+
+    private void fallBackToPassive() {
+        remove(activeCanvas);
+        activeCanvas = null;
+        revalidate();
+        dirtyRegions.markAll();
+    }
+
+    @Override
+    public void mouseClicked(MouseEvent e) {
+        // walk around the counter and tables instead of straight through them
+        int[] path = navigation().findPath(player.getAnchorX(), player.getAnchorY(), e.getX(), e.getY());
+        if (path == null) return; // no way there
+        player.clearWaypoints();
+        for (int i = 0; i < path.length; i += 2) {
+            player.addWaypoint(path[i], path[i + 1]);
+        }
+    }
+
+    private NavigationGrid navigation() {
+        int w = Math.max(NAV_MIN_W, getWidth()), h = Math.max(NAV_MIN_H, getHeight());
+        int cols = (w + NAV_CELL - 1) / NAV_CELL, rows = (h + NAV_CELL - 1) / NAV_CELL;
+        if (navGrid == null || navGrid.getCols() != cols || navGrid.getRows() != rows) {
+            navGrid = new NavigationGrid(w, h, NAV_CELL, NAV_CLEARANCE);
+            navGrid.block(COUNTER_BOUNDS);
+            for (Rectangle r : tables) navGrid.block(r);
+            // customers follow a flow field over the same grid
+            customerQueue.setNavigation(navGrid);
+        }
+        return navGrid;
+    }
+
+    public void mousePressed(MouseEvent e) {}
+    public void mouseReleased(MouseEvent e) {}
+    public void mouseEntered(MouseEvent e) {}
+    public void mouseExited(MouseEvent e) {}
+
+    /** Queue the game screen's images (scene and player) on the AssetManager without waiting. */
+    public static void requestAssets() {
+        PropRegistry.request(PropRegistry.BACKGROUND, PropRegistry.COUNTER, PropRegistry.TABLE);
+        Player.requestAssets();
+    }
+
+    // ✅ CALLED BY MAIN LAUNCHER
+    public void spawnCustomerByName(String name) {
+        customerQueue.spawnCustomer(SpriteAtlas.indexOf(name));
+    }
+}
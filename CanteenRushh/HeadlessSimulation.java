@@ -0,0 +1,200 @@
+package CanteenRushh;
+
+import java.awt.*;
+import java.util.Random;
+
+/**
+ * HeadlessSimulation - runs full CustomerQueue rounds with no window, faster than real time.
+ * - Spawning, patience deadlines, serving (markPaid per counter) and lives go through the real CustomerQueue
+ * - Several counters / lanes (rush hour) are set in Config; each counter has its own server
+ * - Everything random comes from one seed, so a (seed, config) pair always plays out the same
+ * - Customers are never drawn, so no images or audio are loaded
+ *
+ * Usage:
+ *   Result r = HeadlessSimulation.runRound(42L, Config.forDifficulty(3));
+ *   java -Djava.awt.headless=true -cp out CanteenRushh.HeadlessSimulation [rounds] [difficulty] [seed]
+ *        [counters] [lanes] [SHORTEST_LINE|SHARED_SERPENTINE] [patience stagger seconds]
+ */
+public class HeadlessSimulation implements CustomerQueue.QueueEventListener {
+
+    /**
+     * Round tuning. Only the defaults come from the game (GamePanel's queue and Customer's
+     * patience; MainLauncher.startCanteenRushGame opens with 4 customers, all with the same
+     * patience). The game does not change the queue with difficulty yet and has no server timing,
+     * so the difficulty 2 and 3 presets and service times are synthetic, for comparing queue
+     * changes against each other.
+     */
+    public static final class Config {
+        public int initialCustomers = 4;
+        public int maxSlots = 6;
+        public int lives = 3;
+        public int patienceSeconds = Customer.DEFAULT_PATIENCE;
+        // opening customer i gets i * this many extra seconds of patience, so the opening line
+        // does not run out all at once (which would end most rounds at the same moment);
+        // 0 = everyone opens with the same patience, like the game
+        public int initialPatienceStagger = 0;
+        public double minServiceSeconds = 1.0; // time the server needs once someone is at the counter
+        public double maxServiceSeconds = 2.5;
+        public double roundSeconds = 120.0;
+        public double stepSeconds = 0.02;      // same fixed step as GamePanel
+        public int counters = 1;
+        public int lanes = 1;
+        public CustomerQueue.AssignmentPolicy policy = CustomerQueue.AssignmentPolicy.SHORTEST_LINE;
+
+        public static Config forDifficulty(int difficulty) {
+            Config c = new Config();
+            switch (difficulty) {
+                case 2:
+                    c.initialCustomers = 6;
+                    c.initialPatienceStagger = 2;
+                    c.minServiceSeconds = 1.5;
+                    c.maxServiceSeconds = 3.0;
+                    break;
+                case 3:
+                    c.initialCustomers = 8;
+                    c.initialPatienceStagger = 1;
+                    c.minServiceSeconds = 2.0;
+                    c.maxServiceSeconds = 3.5;
+                    break;
+                default:
+                    break;
+            }
+            return c;
+        }
+    }
+
+    public static final class Result {
+        public final long seed;
+        public final int served;
+        public final int leftAngrily;
+        public final int livesLeft;
+        public final double simulatedSeconds;
+
+        Result(long seed, int served, int leftAngrily, int livesLeft, double simulatedSeconds) {
+            this.seed = seed;
+            this.served = served;
+            this.leftAngrily = leftAngrily;
+            this.livesLeft = livesLeft;
+            this.simulatedSeconds = simulatedSeconds;
+        }
+
+        public boolean survived() { return livesLeft > 0; }
+
+        @Override
+        public String toString() {
+            return String.format("seed=%d served=%d angry=%d lives=%d time=%.1fs",
+                    seed, served, leftAngrily, livesLeft, simulatedSeconds);
+        }
+    }
+
+    // same layout as GamePanel so timings match the real game
+    private static final Rectangle QUEUE_AREA = new Rectangle(0, 180, 220, 520);
+    private static final Point COUNTER_POS = new Point(160, 260);
+    // extra counters sit further along the counter, extra lanes beside the first one
+    private static final int COUNTER_SPACING = 160;
+    private static final int LANE_SPACING = 170;
+
+    private int leftAngrily = 0;
+    private int lives;
+
+    private HeadlessSimulation(int lives) {
+        this.lives = lives;
+    }
+
+    @Override
+    public void onCustomerLeftAngrily(Customer c) {
+        leftAngrily++;
+    }
+
+    @Override
+    public void onLivesChanged(int lives) {
+        this.lives = lives;
+    }
+
+    /**
+     * Play one round until lives run out or the round time is over.
+     */
+    public static Result runRound(long seed, Config cfg) {
+        Random rng = new Random(seed);
+        HeadlessSimulation sim = new HeadlessSimulation(cfg.lives);
+        Rectangle[] laneAreas = new Rectangle[Math.max(1, cfg.lanes)];
+        for (int l = 0; l < laneAreas.length; l++) {
+            laneAreas[l] = new Rectangle(QUEUE_AREA);
+            laneAreas[l].translate(l * LANE_SPACING, 0);
+        }
+        Point[] counters = new Point[Math.max(1, cfg.counters)];
+        for (int k = 0; k < counters.length; k++) {
+            counters[k] = new Point(COUNTER_POS.x + k * COUNTER_SPACING, COUNTER_POS.y);
+        }
+        CustomerQueue queue = new CustomerQueue(laneAreas, counters, cfg.maxSlots, cfg.policy, sim, rng);
+        queue.setLives(cfg.lives);
+        for (int i = 0; i < cfg.initialCustomers; i++) {
+            queue.setCustomerPatience(cfg.patienceSeconds + i * cfg.initialPatienceStagger);
+            queue.spawnCustomer();
+        }
+        queue.setCustomerPatience(cfg.patienceSeconds);
+
+        int served = 0;
+        double time = 0.0;
+        Customer[] serving = new Customer[counters.length]; // customer each server is working on
+        double[] serviceLeft = new double[counters.length];
+
+        while (time < cfg.roundSeconds && sim.lives > 0) {
+            queue.update(cfg.stepSeconds);
+            time += cfg.stepSeconds;
+
+            for (int k = 0; k < counters.length; k++) {
+                Customer at = queue.getCustomerAtCounter(k);
+                if (at == null || !at.isAtCounter()) {
+                    serving[k] = null;
+                    continue;
+                }
+                if (at != serving[k]) {
+                    // new customer at the counter: start serving them
+                    serving[k] = at;
+                    serviceLeft[k] = cfg.minServiceSeconds + rng.nextDouble() * (cfg.maxServiceSeconds - cfg.minServiceSeconds);
+                }
+                serviceLeft[k] -= cfg.stepSeconds;
+                if (serviceLeft[k] <= 0) {
+                    queue.markPaid(k);
+                    served++;
+                    serving[k] = null;
+                }
+            }
+        }
+
+        return new Result(seed, served, sim.leftAngrily, sim.lives, time);
+    }
+
+    public static void main(String[] args) {
+        System.setProperty("java.awt.headless", "true");
+        int rounds = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        int difficulty = args.length > 1 ? Integer.parseInt(args[1]) : 2;
+        long baseSeed = args.length > 2 ? Long.parseLong(args[2]) : 1L;
+
+        Config cfg = Config.forDifficulty(difficulty);
+        if (args.length > 3) cfg.counters = Integer.parseInt(args[3]);
+        cfg.lanes = args.length > 4 ? Integer.parseInt(args[4]) : cfg.counters;
+        if (args.length > 5) cfg.policy = CustomerQueue.AssignmentPolicy.valueOf(args[5]);
+        if (args.length > 6) cfg.initialPatienceStagger = Integer.parseInt(args[6]);
+        long totalServed = 0, totalAngry = 0;
+        int survived = 0;
+        double simulated = 0;
+
+        long start = System.nanoTime();
+        for (int i = 0; i < rounds; i++) {
+            Result r = runRound(baseSeed + i, cfg);
+            totalServed += r.served;
+            totalAngry += r.leftAngrily;
+            simulated += r.simulatedSeconds;
+            if (r.survived()) survived++;
+            if (rounds <= 10) System.out.println(r);
+        }
+        double wall = (System.nanoTime() - start) / 1_000_000_000.0;
+
+        System.out.println(String.format(
+                "difficulty=%d counters=%d lanes=%d %s stagger=%ds rounds=%d survived=%.1f%% avgServed=%.2f avgAngry=%.2f avgTime=%.1fs | %.0f rounds/s, %.0fx real time",
+                difficulty, cfg.counters, cfg.lanes, cfg.policy, cfg.initialPatienceStagger, rounds, 100.0 * survived / rounds, totalServed / (double) rounds,
+                totalAngry / (double) rounds, simulated / rounds, rounds / wall, simulated / wall));
+    }
+}
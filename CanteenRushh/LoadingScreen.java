@@ -0,0 +1,72 @@
+package CanteenRushh;
+
+import javax.swing.*;
+import java.awt.*;
+
+/**
+ * LoadingScreen - shows AssetManager progress and runs a callback once everything queued is loaded.
+ */
+public class LoadingScreen extends JPanel {
+
+    private static final long serialVersionUID = 1L;
+
+    private final AssetManager assets;
+    private final Timer poll;
+    private double shownProgress = 0.0;
+
+    /**
+     * @param onFinished run on the EDT once, when the asset queue is empty
+     */
+    public LoadingScreen(AssetManager assets, Runnable onFinished) {
+        this.assets = assets;
+        setBackground(Color.BLACK);
+        setPreferredSize(new Dimension(1000, 750));
+
+        poll = new Timer(30, e -> {
+            shownProgress = assets.getProgress();
+            repaint();
+            if (assets.isIdle()) {
+                ((Timer) e.getSource()).stop();
+                if (onFinished != null) onFinished.run();
+            }
+        });
+    }
+
+    @Override
+    public void addNotify() {
+        super.addNotify();
+        poll.start();
+    }
+
+    @Override
+    public void removeNotify() {
+        poll.stop();
+        super.removeNotify();
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        super.paintComponent(g);
+        Graphics2D g2 = (Graphics2D) g;
+        g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+
+        int barW = Math.min(600, getWidth() - 80);
+        int barH = 36;
+        int x = (getWidth() - barW) / 2;
+        int y = getHeight() / 2;
+
+        g2.setFont(FontRegistry.pixelFont(32f));
+        g2.setColor(Color.WHITE);
+        g2.drawString("Loading...", x, y - 20);
+
+        // yellow bar in the menu's style
+        g2.setColor(new Color(255, 230, 0, 210));
+        g2.fillRoundRect(x, y, (int) (barW * shownProgress), barH, 20, 20);
+        g2.setColor(Color.WHITE);
+        g2.setStroke(new BasicStroke(3));
+        g2.drawRoundRect(x, y, barW, barH, 20, 20);
+
+        g2.setFont(FontRegistry.pixelFont(20f));
+        g2.drawString(assets.getCompleted() + " / " + assets.getSubmitted(), x, y + barH + 30);
+    }
+}
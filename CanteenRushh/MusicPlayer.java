@@ -0,0 +1,70 @@
+package CanteenRushh;
+
+import java.net.URL;
+import java.util.function.Function;
+
+/**
+ * MusicPlayer - one streamed, looping music track at a time, with crossfades.
+ * - A track is opened only when play() asks for it (no preloading, nothing decoded into the heap)
+ * - Switching tracks fades the old one out while the new one fades in
+ * - Asking for the track that is already playing leaves it running
+ *
+ * Streaming and mixing happen on the AudioMixer thread.
+ */
+public class MusicPlayer {
+
+    private final AudioMixer mixer;
+    private final Function<String, URL> resolver;
+    private final double crossfadeSeconds;
+    private float volume = 1f;
+
+    private String currentTrack;
+    private int voice = -1;
+
+    /**
+     * @param resolver         maps a track file name to a URL (may return null when missing)
+     * @param crossfadeSeconds length of the fade between tracks
+     */
+    public MusicPlayer(AudioMixer mixer, Function<String, URL> resolver, double crossfadeSeconds) {
+        this.mixer = mixer;
+        this.resolver = resolver;
+        this.crossfadeSeconds = crossfadeSeconds;
+    }
+
+    /**
+     * Crossfade to the given track (looping). null fades out whatever is playing.
+     */
+    public void play(String track) {
+        if (track == null) {
+            stop();
+            return;
+        }
+        if (track.equals(currentTrack) && mixer.isPlaying(voice)) return;
+
+        if (voice >= 0) mixer.fadeOut(voice, crossfadeSeconds);
+        voice = -1;
+        currentTrack = track;
+
+        URL url = resolver.apply(track);
+        if (url == null) {
+            System.out.println("Music file not found: " + track);
+            return;
+        }
+        voice = mixer.playStream(url, 0f, true);
+        mixer.fadeTo(voice, volume, crossfadeSeconds);
+    }
+
+    /** Fade out the current track. */
+    public void stop() {
+        if (voice >= 0) mixer.fadeOut(voice, crossfadeSeconds);
+        voice = -1;
+        currentTrack = null;
+    }
+
+    public void setVolume(float volume) {
+        this.volume = Math.max(0f, volume);
+        mixer.setGain(voice, this.volume);
+    }
+
+    public String getCurrentTrack() { return currentTrack; }
+}
@@ -0,0 +1,402 @@
+package CanteenRushh;
+
+import java.awt.Rectangle;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * NavigationGrid - occupancy grid and A* pathfinding for walking around the scene.
+ * - Obstacles (tables, counter) are rasterized into fixed-size cells, grown by a clearance
+ * - A* over 8 neighbours (no cutting past blocked corners) with an octile heuristic
+ * - All search state lives in int arrays reused between searches; a generation stamp
+ *   marks which entries belong to the current search, so nothing is cleared or allocated
+ * - The open set is a binary heap of primitive ints
+ * - Paths are smoothed (line of sight between cells) and cached per (start cell, goal cell)
+ * - integrationField() gives the walking cost to one goal from every cell (see FlowField)
+ *
+ * Usage:
+ *   NavigationGrid nav = new NavigationGrid(w, h, 20, 8);
+ *   nav.block(tableRect); ...
+ *   int[] xy = nav.findPath(fromX, fromY, toX, toY); // x,y pairs after the start, or null
+ */
+public class NavigationGrid {
+
+    private static final int STRAIGHT = 10, DIAGONAL = 14;
+    private static final int[] DX = { 1, -1, 0, 0, 1, 1, -1, -1 };
+    private static final int[] DY = { 0, 0, 1, -1, 1, -1, 1, -1 };
+    private static final int PATH_CACHE_SIZE = 256;
+    // how far (in cells) to look for a free cell when the goal is blocked
+    private static final int GOAL_SEARCH_RADIUS = 6;
+    // a start inside an obstacle (e.g. spawned behind the counter) walks out to the closest free cell
+    private static final int START_SEARCH_RADIUS = 16;
+
+    private final int cellSize;
+    private final int clearance;
+    private final int cols, rows;
+    private final boolean[] blocked;
+
+    // A* state, valid where the stamp equals the current generation
+    private final int[] gScore;
+    private final int[] parent;
+    private final int[] seenGen;
+    private final int[] closedGen;
+    private int generation;
+
+    // open set: binary min-heap of (f, h, cell); on equal f the entry closer to the goal wins,
+    // which keeps A* from widening over open floor where many cells tie
+    private int[] heapF = new int[64];
+    private int[] heapH = new int[64];
+    private int[] heapCell = new int[64];
+    private int heapSize;
+
+    // scratch for the raw (unsmoothed) cell path and its turning cells
+    private int[] rawPath = new int[64];
+    private int[] turnPath = new int[64];
+
+    private final Map<Long, int[]> pathCache = new LinkedHashMap<Long, int[]>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, int[]> eldest) {
+            return size() > PATH_CACHE_SIZE;
+        }
+    };
+
+    /**
+     * @param width     area covered, in pixels
+     * @param cellSize  grid resolution in pixels
+     * @param clearance obstacles are grown by this many pixels on every side
+     */
+    public NavigationGrid(int width, int height, int cellSize, int clearance) {
+        this.cellSize = Math.max(1, cellSize);
+        this.clearance = Math.max(0, clearance);
+        this.cols = Math.max(1, (width + this.cellSize - 1) / this.cellSize);
+        this.rows = Math.max(1, (height + this.cellSize - 1) / this.cellSize);
+        int n = cols * rows;
+        blocked = new boolean[n];
+        gScore = new int[n];
+        parent = new int[n];
+        seenGen = new int[n];
+        closedGen = new int[n];
+    }
+
+    // ---------------- OCCUPANCY ----------------
+    /** Marks every cell touched by the rectangle (grown by the clearance) as blocked. */
+    public void block(Rectangle r) {
+        int x0 = Math.max(0, (r.x - clearance) / cellSize);
+        int y0 = Math.max(0, (r.y - clearance) / cellSize);
+        int x1 = Math.min(cols - 1, (r.x + r.width + clearance - 1) / cellSize);
+        int y1 = Math.min(rows - 1, (r.y + r.height + clearance - 1) / cellSize);
+        for (int y = y0; y <= y1; y++) {
+            for (int x = x0; x <= x1; x++) blocked[y * cols + x] = true;
+        }
+        pathCache.clear();
+    }
+
+    public void clear() {
+        Arrays.fill(blocked, false);
+        pathCache.clear();
+    }
+
+    public boolean isBlockedAt(int px, int py) {
+        return blocked[cellAt(px, py)];
+    }
+
+    public boolean isBlockedCell(int cell) {
+        return blocked[cell];
+    }
+
+    public int getCols() { return cols; }
+
+    public int getRows() { return rows; }
+
+    public int getCellSize() { return cellSize; }
+
+    /** @return the cell containing the pixel, clamped to the grid */
+    public int cellAt(int px, int py) {
+        int cx = Math.max(0, Math.min(cols - 1, px / cellSize));
+        int cy = Math.max(0, Math.min(rows - 1, py / cellSize));
+        return cy * cols + cx;
+    }
+
+    public int cellCenterX(int cell) { return (cell % cols) * cellSize + cellSize / 2; }
+
+    public int cellCenterY(int cell) { return (cell / cols) * cellSize + cellSize / 2; }
+
+    // ---------------- QUERIES ----------------
+    /**
+     * Path from one pixel to another around the obstacles.
+     * A blocked goal is moved to the nearest free cell; a blocked start first walks out to one.
+     * @return x,y pairs of the points to walk through after the start (the last one is the goal,
+     *         or the free cell used instead), or null if there is no way there
+     */
+    public int[] findPath(int fromX, int fromY, int toX, int toY) {
+        int start = cellAt(fromX, fromY);
+        boolean escape = blocked[start];
+        if (escape) {
+            start = nearestFree(start, START_SEARCH_RADIUS);
+            if (start < 0) return null;
+        }
+        int goal = cellAt(toX, toY);
+        boolean exactGoal = !blocked[goal];
+        if (!exactGoal) {
+            goal = nearestFree(goal, GOAL_SEARCH_RADIUS);
+            if (goal < 0) return null;
+        }
+
+        int[] cells = cells(start, goal);
+        if (cells == null) return null;
+
+        // cell centers for the corners, the exact click for the end
+        int[] xy = new int[cells.length * 2 + (escape ? 4 : 2)];
+        int n = 0;
+        if (escape) {
+            xy[n++] = cellCenterX(start);
+            xy[n++] = cellCenterY(start);
+        }
+        for (int c : cells) {
+            xy[n++] = cellCenterX(c);
+            xy[n++] = cellCenterY(c);
+        }
+        xy[n++] = exactGoal ? toX : cellCenterX(goal);
+        xy[n++] = exactGoal ? toY : cellCenterY(goal);
+        return xy;
+    }
+
+    /** True if a straight walk between the two pixels crosses no blocked cell (the start cell is not checked). */
+    public boolean lineOfSight(int fromX, int fromY, int toX, int toY) {
+        return lineOfSight(cellAt(fromX, fromY), cellAt(toX, toY));
+    }
+
+    /**
+     * Walking cost from every cell to the goal (Dijkstra outward from the goal, same step costs
+     * and corner rule as A*). Blocked or unreachable cells get Integer.MAX_VALUE.
+     * Meant to be computed once per layout, e.g. for a FlowField.
+     */
+    public int[] integrationField(int toX, int toY) {
+        int[] cost = new int[cols * rows];
+        Arrays.fill(cost, Integer.MAX_VALUE);
+        int goal = cellAt(toX, toY);
+        if (blocked[goal]) {
+            goal = nearestFree(goal, GOAL_SEARCH_RADIUS);
+            if (goal < 0) return cost;
+        }
+        int gen = nextGeneration();
+        heapSize = 0;
+        cost[goal] = 0;
+        push(0, 0, goal);
+
+        while (heapSize > 0) {
+            int cell = pop();
+            if (closedGen[cell] == gen) continue;
+            closedGen[cell] = gen;
+
+            int cx = cell % cols, cy = cell / cols;
+            for (int d = 0; d < 8; d++) {
+                int nx = cx + DX[d], ny = cy + DY[d];
+                if (nx < 0 || ny < 0 || nx >= cols || ny >= rows) continue;
+                int next = ny * cols + nx;
+                if (blocked[next] || closedGen[next] == gen) continue;
+                boolean diagonal = d >= 4;
+                if (diagonal && (blocked[cy * cols + nx] || blocked[ny * cols + cx])) continue;
+
+                int g = cost[cell] + (diagonal ? DIAGONAL : STRAIGHT);
+                if (g < cost[next]) {
+                    cost[next] = g;
+                    push(g, 0, next);
+                }
+            }
+        }
+        return cost;
+    }
+
+    /** Smoothed corner cells between start and goal (both excluded), cached per pair. */
+    private int[] cells(int start, int goal) {
+        Long key = ((long) start << 32) | (goal & 0xffffffffL);
+        int[] cached = pathCache.get(key);
+        if (cached != null) return cached;
+
+        int length = search(start, goal);
+        if (length < 0) return null;
+        int[] corners = smooth(length);
+        pathCache.put(key, corners);
+        return corners;
+    }
+
+    // ---------------- A* ----------------
+    /** Fills rawPath with goal..start (reversed); @return its length, -1 if unreachable */
+    private int search(int start, int goal) {
+        int gen = nextGeneration();
+        heapSize = 0;
+
+        gScore[start] = 0;
+        parent[start] = -1;
+        seenGen[start] = gen;
+        int h0 = heuristic(start, goal);
+        push(h0, h0, start);
+
+        while (heapSize > 0) {
+            int cell = pop();
+            if (closedGen[cell] == gen) continue; // stale heap entry
+            closedGen[cell] = gen;
+            if (cell == goal) return tracePath(start, goal);
+
+            int cx = cell % cols, cy = cell / cols;
+            for (int d = 0; d < 8; d++) {
+                int nx = cx + DX[d], ny = cy + DY[d];
+                if (nx < 0 || ny < 0 || nx >= cols || ny >= rows) continue;
+                int next = ny * cols + nx;
+                if (blocked[next] || closedGen[next] == gen) continue;
+                boolean diagonal = d >= 4;
+                // no squeezing diagonally between two blocked cells or past a corner
+                if (diagonal && (blocked[cy * cols + nx] || blocked[ny * cols + cx])) continue;
+
+                int g = gScore[cell] + (diagonal ? DIAGONAL : STRAIGHT);
+                if (seenGen[next] != gen || g < gScore[next]) {
+                    seenGen[next] = gen;
+                    gScore[next] = g;
+                    parent[next] = cell;
+                    int h = heuristic(next, goal);
+                    push(g + h, h, next);
+                }
+            }
+        }
+        return -1;
+    }
+
+    private int nextGeneration() {
+        if (++generation == Integer.MAX_VALUE) {
+            Arrays.fill(seenGen, 0);
+            Arrays.fill(closedGen, 0);
+            generation = 1;
+        }
+        return generation;
+    }
+
+    private int heuristic(int a, int b) {
+        int dx = Math.abs(a % cols - b % cols);
+        int dy = Math.abs(a / cols - b / cols);
+        return STRAIGHT * (dx + dy) + (DIAGONAL - 2 * STRAIGHT) * Math.min(dx, dy);
+    }
+
+    private int tracePath(int start, int goal) {
+        int n = 0;
+        for (int c = goal; c != -1; c = parent[c]) {
+            if (n == rawPath.length) rawPath = Arrays.copyOf(rawPath, n * 2);
+            rawPath[n++] = c;
+            if (c == start) break;
+        }
+        return n;
+    }
+
+    /** Keeps only the cells where the direction has to change (line of sight otherwise). */
+    private int[] smooth(int length) {
+        // rawPath is goal..start; straight runs collapse to their turning cells first,
+        // so the line-of-sight pass only looks at a handful of candidates
+        if (turnPath.length < length) turnPath = new int[rawPath.length];
+        int[] t = turnPath;
+        int turns = 0;
+        for (int i = length - 1; i >= 0; i--) {
+            if (i == length - 1 || i == 0 || rawPath[i + 1] - rawPath[i] != rawPath[i] - rawPath[i - 1]) {
+                t[turns++] = rawPath[i]; // start..goal
+            }
+        }
+
+        int[] out = new int[turns];
+        int count = 0;
+        int anchor = t[0];
+        int i = 1;
+        while (i < turns - 1) {
+            // furthest turn still visible from the anchor
+            int j = i;
+            while (j < turns - 1 && lineOfSight(anchor, t[j + 1])) j++;
+            if (j == turns - 1) break;
+            out[count++] = t[j];
+            anchor = t[j];
+            i = j + 1;
+        }
+        return Arrays.copyOf(out, count);
+    }
+
+    /** Conservative grid line walk: a diagonal step needs both side cells free too. */
+    private boolean lineOfSight(int a, int b) {
+        int x0 = a % cols, y0 = a / cols;
+        int x1 = b % cols, y1 = b / cols;
+        int dx = Math.abs(x1 - x0), dy = Math.abs(y1 - y0);
+        int sx = x0 < x1 ? 1 : -1, sy = y0 < y1 ? 1 : -1;
+        int err = dx - dy;
+        while (x0 != x1 || y0 != y1) {
+            int e2 = 2 * err;
+            boolean stepX = e2 > -dy, stepY = e2 < dx;
+            if (stepX && stepY && (blocked[y0 * cols + x0 + sx] || blocked[(y0 + sy) * cols + x0])) return false;
+            if (stepX) { err -= dy; x0 += sx; }
+            if (stepY) { err += dx; y0 += sy; }
+            if (blocked[y0 * cols + x0]) return false;
+        }
+        return true;
+    }
+
+    private int nearestFree(int cell, int radius) {
+        int cx = cell % cols, cy = cell / cols;
+        for (int r = 1; r <= radius; r++) {
+            int best = -1, bestD = Integer.MAX_VALUE;
+            for (int y = cy - r; y <= cy + r; y++) {
+                for (int x = cx - r; x <= cx + r; x++) {
+                    if (Math.max(Math.abs(x - cx), Math.abs(y - cy)) != r) continue; // ring only
+                    if (x < 0 || y < 0 || x >= cols || y >= rows || blocked[y * cols + x]) continue;
+                    int d = (x - cx) * (x - cx) + (y - cy) * (y - cy);
+                    if (d < bestD) { bestD = d; best = y * cols + x; }
+                }
+            }
+            if (best >= 0) return best;
+        }
+        return -1;
+    }
+
+    // ---------------- HEAP ----------------
+    private void push(int f, int h, int cell) {
+        if (heapSize == heapF.length) {
+            heapF = Arrays.copyOf(heapF, heapSize * 2);
+            heapH = Arrays.copyOf(heapH, heapSize * 2);
+            heapCell = Arrays.copyOf(heapCell, heapSize * 2);
+        }
+        int i = heapSize++;
+        while (i > 0) {
+            int p = (i - 1) >> 1;
+            if (!before(f, h, heapF[p], heapH[p])) break;
+            move(p, i);
+            i = p;
+        }
+        heapF[i] = f;
+        heapH[i] = h;
+        heapCell[i] = cell;
+    }
+
+    private int pop() {
+        int top = heapCell[0];
+        int last = --heapSize;
+        int f = heapF[last], h = heapH[last], cell = heapCell[last];
+        int i = 0;
+        while (true) {
+            int c = 2 * i + 1;
+            if (c >= heapSize) break;
+            if (c + 1 < heapSize && before(heapF[c + 1], heapH[c + 1], heapF[c], heapH[c])) c++;
+            if (!before(heapF[c], heapH[c], f, h)) break;
+            move(c, i);
+            i = c;
+        }
+        heapF[i] = f;
+        heapH[i] = h;
+        heapCell[i] = cell;
+        return top;
+    }
+
+    private static boolean before(int f1, int h1, int f2, int h2) {
+        return f1 < f2 || (f1 == f2 && h1 < h2);
+    }
+
+    private void move(int from, int to) {
+        heapF[to] = heapF[from];
+        heapH[to] = heapH[from];
+        heapCell[to] = heapCell[from];
+    }
+}
@@ -1,64 +1,204 @@
-package CanteenRushh;
-
-import javax.swing.*;
-import java.awt.*;
-
-public class Player {
-
-    public int x = 200, y = 200;
-    private int targetX = 200, targetY = 200;
-    private int speed = 5;
-    private boolean moving = false;
-
-    private ImageIcon currentSprite, idle, walkUp, walkDown, walkLeft, walkRight;
-
-    public Player() {
-        walkUp = new ImageIcon(getClass().getResource("/tindera_gif/walk_backwards.gif"));
-        walkDown = new ImageIcon(getClass().getResource("/tindera_gif/walk_forward.gif"));
-        walkLeft = new ImageIcon(getClass().getResource("/tindera_gif/walk_left.gif"));
-        walkRight = new ImageIcon(getClass().getResource("/tindera_gif/walk_right.gif"));
-        idle = new ImageIcon(getClass().getResource("/tindera_gif/walk_still.png"));
-
-        currentSprite = idle;
-    }
-
-    public void moveTo(int mx, int my) {
-        targetX = mx - 20;
-        targetY = my - 20;
-        moving = true;
-    }
-
-    public void update() {
-        if (!moving) return;
-
-        int dx = targetX - x;
-        int dy = targetY - y;
-        double dist = Math.sqrt(dx * dx + dy * dy);
-
-        if (dist > speed) {
-            x += speed * dx / dist;
-            y += speed * dy / dist;
-
-            if (Math.abs(dx) > Math.abs(dy))
-                currentSprite = (dx > 0) ? walkRight : walkLeft;
-            else
-                currentSprite = (dy > 0) ? walkDown : walkUp;
-        } else {
-            moving = false;
-            currentSprite = idle;
-        }
-    }
-
-    public void draw(Graphics g) {
-        currentSprite.paintIcon(null, g, x, y);
-    }
-
-    // ✅ FIXED: Proper getters
-    public int getX() {
-        return x;
-    }
-
-    public int getY() {
-        return y;
-    }
-}
+package CanteenRushh;
+
+import javax.swing.*;
+import java.awt.*;
+import java.util.concurrent.Future;
+
+/**
+ * Player - the server, moved by clicks.
+ * - Movement is integrated over dtSeconds at SPEED px/s on double positions, so it looks the
+ *   same at any update rate and diagonals do not truncate or stall short of the target
+ * - Follows a queue of waypoints; distance left over at a waypoint carries on to the next
+ *   one in the same update, so corners are taken without a pause
+ * - Arrives when within ARRIVE_TOLERANCE px (snapped onto the point)
+ */
+public class Player {
+
+    // old behaviour: 5 px per 20 ms update
+    private static final double SPEED = 250.0; // pixels per second
+    private static final double ARRIVE_TOLERANCE = 0.5;
+    // clicks are aimed at the sprite's middle, positions are its top-left corner
+    private static final int CLICK_OFFSET = 20;
+
+    private double x = 200, y = 200;
+    private double prevX = 200, prevY = 200; // position before the last update, for interpolation
+    private boolean moving = false;
+
+    // waypoint queue (ring buffer of top-left positions), no allocation while following a path
+    private double[] waypointX = new double[16];
+    private double[] waypointY = new double[16];
+    private int waypointHead, waypointCount;
+
+    private ImageIcon currentSprite, idle, walkUp, walkDown, walkLeft, walkRight;
+
+    // screen box and sprite of the last frame, for dirty-rectangle repaint
+    private final Rectangle drawnBounds = new Rectangle();
+    private ImageIcon drawnSprite;
+
+    // sprite files, decoded in parallel by the AssetManager (usually already done by the loading screen)
+    private static final String[] SPRITE_FILES = {
+        "tindera_gif/walk_backwards.gif",
+        "tindera_gif/walk_forward.gif",
+        "tindera_gif/walk_left.gif",
+        "tindera_gif/walk_right.gif",
+        "tindera_gif/walk_still.png"
+    };
+
+    public Player() {
+        AssetManager assets = AssetManager.shared();
+        Future<ImageIcon> up = assets.icon(SPRITE_FILES[0]);
+        Future<ImageIcon> down = assets.icon(SPRITE_FILES[1]);
+        Future<ImageIcon> left = assets.icon(SPRITE_FILES[2]);
+        Future<ImageIcon> right = assets.icon(SPRITE_FILES[3]);
+        Future<ImageIcon> still = assets.icon(SPRITE_FILES[4]);
+
+        walkUp = AssetManager.await(up);
+        walkDown = AssetManager.await(down);
+        walkLeft = AssetManager.await(left);
+        walkRight = AssetManager.await(right);
+        idle = AssetManager.await(still);
+        if (idle == null) System.out.println("Missing player sprites!");
+
+        currentSprite = idle;
+    }
+
+    /** Queue the player sprites on the AssetManager without waiting. */
+    public static void requestAssets() {
+        for (String f : SPRITE_FILES) AssetManager.shared().icon(f);
+    }
+
+    /** Walk straight to the clicked point (drops any path being followed). */
+    public void moveTo(int mx, int my) {
+        clearWaypoints();
+        addWaypoint(mx, my);
+    }
+
+    /**
+     * Append a point (in click coordinates, like moveTo) to the path being followed.
+     */
+    public void addWaypoint(double mx, double my) {
+        if (waypointCount == waypointX.length) growWaypoints();
+        int i = (waypointHead + waypointCount) % waypointX.length;
+        waypointX[i] = mx - CLICK_OFFSET;
+        waypointY[i] = my - CLICK_OFFSET;
+        waypointCount++;
+        moving = true;
+    }
+
+    public void clearWaypoints() {
+        waypointHead = 0;
+        waypointCount = 0;
+    }
+
+    public int getWaypointCount() { return waypointCount; }
+
+    public boolean isMoving() { return moving; }
+
+    /**
+     * Advance along the waypoints.
+     * @param dtSeconds time since the last update
+     */
+    public void update(double dtSeconds) {
+        prevX = x;
+        prevY = y;
+        if (!moving) return;
+
+        double budget = SPEED * dtSeconds;
+        double dirX = 0, dirY = 0;
+        while (waypointCount > 0) {
+            double dx = waypointX[waypointHead] - x;
+            double dy = waypointY[waypointHead] - y;
+            double dist = Math.sqrt(dx * dx + dy * dy);
+            if (dist > ARRIVE_TOLERANCE) {
+                dirX = dx;
+                dirY = dy;
+            }
+            if (dist <= budget || dist <= ARRIVE_TOLERANCE) {
+                // reach this waypoint and carry the rest of the step on to the next one
+                x = waypointX[waypointHead];
+                y = waypointY[waypointHead];
+                budget -= dist;
+                waypointHead = (waypointHead + 1) % waypointX.length;
+                waypointCount--;
+                continue;
+            }
+            x += budget * dx / dist;
+            y += budget * dy / dist;
+            break;
+        }
+
+        if (waypointCount == 0) {
+            moving = false;
+            currentSprite = idle;
+        } else if (dirX != 0 || dirY != 0) {
+            if (Math.abs(dirX) > Math.abs(dirY))
+                currentSprite = (dirX > 0) ? walkRight : walkLeft;
+            else
+                currentSprite = (dirY > 0) ? walkDown : walkUp;
+        }
+    }
+
+    private void growWaypoints() {
+        int n = waypointX.length;
+        double[] nx = new double[n * 2];
+        double[] ny = new double[n * 2];
+        for (int i = 0; i < waypointCount; i++) {
+            nx[i] = waypointX[(waypointHead + i) % n];
+            ny[i] = waypointY[(waypointHead + i) % n];
+        }
+        waypointX = nx;
+        waypointY = ny;
+        waypointHead = 0;
+    }
+
+    public void draw(Graphics g) {
+        if (currentSprite == null) return;
+        currentSprite.paintIcon(null, g, (int) Math.round(x), (int) Math.round(y));
+    }
+
+    /**
+     * Draw between the previous and current update position.
+     * @param alpha 0 = previous position, 1 = current position
+     */
+    public void draw(Graphics g, double alpha) {
+        int ix = (int) Math.round(prevX + (x - prevX) * alpha);
+        int iy = (int) Math.round(prevY + (y - prevY) * alpha);
+        if (currentSprite == null) return;
+        currentSprite.paintIcon(null, g, ix, iy);
+    }
+
+    /**
+     * Adds the old and new screen box to the tracker when the player will look different
+     * at the given alpha than in the last frame. A walking player is always dirty (animated GIF).
+     */
+    public void markDirty(DirtyRegionTracker tracker, double alpha) {
+        int ix = (int) Math.round(prevX + (x - prevX) * alpha);
+        int iy = (int) Math.round(prevY + (y - prevY) * alpha);
+        if (!moving && currentSprite == drawnSprite && ix == drawnBounds.x && iy == drawnBounds.y) return;
+
+        tracker.add(drawnBounds);
+        int w = currentSprite != null ? currentSprite.getIconWidth() : 0;
+        int h = currentSprite != null ? currentSprite.getIconHeight() : 0;
+        drawnBounds.setBounds(ix, iy, w, h);
+        drawnSprite = currentSprite;
+        tracker.add(drawnBounds);
+    }
+
+    // ✅ FIXED: Proper getters
+    public int getX() {
+        return (int) Math.round(x);
+    }
+
+    public int getY() {
+        return (int) Math.round(y);
+    }
+
+    /** Current position in click coordinates (what moveTo/addWaypoint take). */
+    public int getAnchorX() {
+        return (int) Math.round(x) + CLICK_OFFSET;
+    }
+
+    public int getAnchorY() {
+        return (int) Math.round(y) + CLICK_OFFSET;
+    }
+}
@@ -0,0 +1,44 @@
+package CanteenRushh;
+
+import javax.swing.ImageIcon;
+import java.awt.Image;
+import java.awt.image.BufferedImage;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * PropRegistry - one shared Image per prop file.
+ * - Every table (and any other prop) drawing the same file references the same Image
+ * - Images come from the AssetManager, so a prop preloaded by the loading screen costs nothing here
+ * - Missing files are remembered too (no repeated lookups), and give null
+ */
+public final class PropRegistry {
+
+    public static final String BACKGROUND = "tile/bg (2).png";
+    public static final String COUNTER = "tile/COUNTERNI.png";
+    public static final String TABLE = "tableres/tablechair.png";
+
+    // ConcurrentHashMap does not allow null values
+    private static final Image MISSING = new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB);
+    private static final Map<String, Image> IMAGES = new ConcurrentHashMap<>();
+
+    private PropRegistry() {}
+
+    /** @return the shared image for a prop file, or null if it is missing */
+    public static Image image(String path) {
+        Image img = IMAGES.get(path);
+        if (img == null) {
+            ImageIcon icon = AssetManager.await(AssetManager.shared().icon(path));
+            img = icon != null ? icon.getImage() : null;
+            if (img == null) System.out.println("Missing prop image: " + path);
+            IMAGES.putIfAbsent(path, img != null ? img : MISSING);
+            img = IMAGES.get(path);
+        }
+        return img == MISSING ? null : img;
+    }
+
+    /** Queue the prop files on the AssetManager without waiting. */
+    public static void request(String... paths) {
+        for (String p : paths) AssetManager.shared().icon(p);
+    }
+}
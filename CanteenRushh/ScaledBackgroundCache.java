@@ -0,0 +1,58 @@
+package CanteenRushh;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+
+/**
+ * ScaledBackgroundCache - keeps one copy of a background already scaled to the panel.
+ * - The copy uses the screen's pixel format, so drawing it is a plain 1:1 blit
+ * - It is rebuilt only when the source image or the panel size changes
+ *
+ * Usage:
+ * - call get(source, width, height, gc) from paintComponent and draw the result at (0, 0)
+ */
+public class ScaledBackgroundCache {
+
+    private Image source;
+    private BufferedImage scaled;
+    private int width, height;
+
+    /**
+     * @param gc graphics configuration of the target component (may be null, e.g. headless)
+     * @return a width x height copy of source, or null if source is null or the size is empty
+     */
+    public BufferedImage get(Image source, int width, int height, GraphicsConfiguration gc) {
+        if (source == null || width <= 0 || height <= 0) return null;
+        if (source != this.source || width != this.width || height != this.height || scaled == null) {
+            rebuild(source, width, height, gc);
+        }
+        return scaled;
+    }
+
+    public void invalidate() {
+        source = null;
+        if (scaled != null) scaled.flush();
+        scaled = null;
+    }
+
+    private void rebuild(Image src, int w, int h, GraphicsConfiguration gc) {
+        if (scaled != null) scaled.flush();
+
+        // opaque backgrounds: let the screen format decide (no alpha channel to blend)
+        BufferedImage img = (gc != null)
+                ? gc.createCompatibleImage(w, h, Transparency.OPAQUE)
+                : new BufferedImage(w, h, BufferedImage.TYPE_INT_RGB);
+
+        Graphics2D g = img.createGraphics();
+        // paid once per resize, so use the good filter
+        g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+        g.drawImage(src, 0, 0, w, h, null);
+        g.dispose();
+
+        this.source = src;
+        this.width = w;
+        this.height = h;
+        this.scaled = img;
+    }
+}
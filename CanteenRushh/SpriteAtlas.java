@@ -0,0 +1,157 @@
+package CanteenRushh;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Future;
+
+/**
+ * SpriteAtlas - shared, process-wide customer sprites.
+ * - Decodes the standing PNG and walking GIF of every character exactly once
+ * - Hands out the same Image instances to every Customer (callers must not draw into them)
+ * - Reports load time and approximate decoded memory when loaded
+ *
+ * Usage:
+ * - call request() once at startup; every file is decoded in parallel on the AssetManager pool
+ * - use standing(idx) / walking(idx) from Customer; first use waits for (or starts) the loading
+ */
+public final class SpriteAtlas {
+
+    // filenames (must be placed in same package/resource path or assets/)
+    private static final String[] WALKING_GIFS = {
+        "walking-talikod-keren.gif",
+        "walking-talikod-matcha.gif",
+        "walking-talikod-miki.gif",
+        "walking-talikod-rov.gif",
+        "walking-talikod-jea.gif"
+    };
+
+    private static final String[] STANDING_PNGS = {
+        "standing-keren1.png",
+        "standing-matcha1.png",
+        "standing-miki1.png",
+        "standing-rov1.png",
+        "standing-jea1.png"
+    };
+
+    // character names in the same order as the sprite files
+    private static final String[] NAMES = { "Keren", "Matcha", "Miki", "Rov", "Jea" };
+
+    public static final int CHARACTER_COUNT = Math.min(WALKING_GIFS.length, STANDING_PNGS.length);
+
+    // placeholder size matches Customer's draw size
+    private static final int PLACEHOLDER_W = 48, PLACEHOLDER_H = 64;
+
+    private static volatile SpriteAtlas instance;
+
+    private final Image[] standing = new Image[CHARACTER_COUNT];
+    private final Image[] walking = new Image[CHARACTER_COUNT];
+    private final long loadNanos;
+    private final long approxBytes;
+
+    private SpriteAtlas() {
+        long start = System.nanoTime();
+        long bytes = 0;
+        Image placeholder = null;
+        List<Future<BufferedImage>> standingF = requestStanding();
+        List<Future<ImageIcon>> walkingF = requestWalking();
+        for (int i = 0; i < CHARACTER_COUNT; i++) {
+            standing[i] = AssetManager.await(standingF.get(i));
+            ImageIcon walk = AssetManager.await(walkingF.get(i));
+            walking[i] = walk != null ? walk.getImage() : null;
+
+            // Last fallback: placeholder images if both missing
+            if (standing[i] == null) {
+                if (placeholder == null) placeholder = createPlaceholderImage();
+                standing[i] = placeholder;
+            }
+            if (walking[i] == null) walking[i] = standing[i]; // if no gif, use static image
+
+            bytes += approxSize(standing[i]);
+            if (walking[i] != standing[i]) bytes += approxSize(walking[i]);
+        }
+        this.loadNanos = System.nanoTime() - start;
+        this.approxBytes = bytes;
+    }
+
+    /**
+     * Queues every sprite file on the AssetManager without waiting (for the loading screen).
+     */
+    public static void request() {
+        requestStanding();
+        requestWalking();
+    }
+
+    /**
+     * Loads every character once. Safe to call from any thread and more than once.
+     */
+    public static SpriteAtlas preload() {
+        SpriteAtlas a = instance;
+        if (a == null) {
+            synchronized (SpriteAtlas.class) {
+                a = instance;
+                if (a == null) {
+                    a = new SpriteAtlas();
+                    instance = a;
+                    System.out.println(String.format("SpriteAtlas: loaded %d characters in %.1f ms (~%d KB decoded)",
+                            CHARACTER_COUNT, a.loadNanos / 1_000_000.0, a.approxBytes / 1024));
+                }
+            }
+        }
+        return a;
+    }
+
+    public static Image standing(int idx) { return preload().standing[idx]; }
+
+    public static Image walking(int idx) { return preload().walking[idx]; }
+
+    /**
+     * @return the character index for a name (case-insensitive), or -1 if unknown
+     */
+    public static int indexOf(String name) {
+        if (name == null) return -1;
+        for (int i = 0; i < CHARACTER_COUNT && i < NAMES.length; i++) {
+            if (NAMES[i].equalsIgnoreCase(name.trim())) return i;
+        }
+        return -1;
+    }
+
+    public long getLoadNanos() { return loadNanos; }
+
+    public long getApproxBytes() { return approxBytes; }
+
+    // ---------------- LOADING ----------------
+    private static List<Future<BufferedImage>> requestStanding() {
+        List<Future<BufferedImage>> f = new ArrayList<>(CHARACTER_COUNT);
+        for (int i = 0; i < CHARACTER_COUNT; i++) f.add(AssetManager.shared().image(STANDING_PNGS[i]));
+        return f;
+    }
+
+    // walking GIFs go through ImageIcon so the animation is kept
+    private static List<Future<ImageIcon>> requestWalking() {
+        List<Future<ImageIcon>> f = new ArrayList<>(CHARACTER_COUNT);
+        for (int i = 0; i < CHARACTER_COUNT; i++) f.add(AssetManager.shared().icon(WALKING_GIFS[i]));
+        return f;
+    }
+
+    private static Image createPlaceholderImage() {
+        BufferedImage img = new BufferedImage(PLACEHOLDER_W, PLACEHOLDER_H, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = img.createGraphics();
+        g.setColor(new Color(180, 130, 100));
+        g.fillRect(0, 0, PLACEHOLDER_W, PLACEHOLDER_H);
+        g.setColor(Color.DARK_GRAY);
+        g.drawRect(0, 0, PLACEHOLDER_W - 1, PLACEHOLDER_H - 1);
+        g.dispose();
+        return img;
+    }
+
+    // 4 bytes per pixel; for animated GIFs this counts a single frame buffer
+    private static long approxSize(Image img) {
+        int w = img.getWidth(null);
+        int h = img.getHeight(null);
+        if (w <= 0 || h <= 0) return 0;
+        return 4L * w * h;
+    }
+}
@@ -0,0 +1,93 @@
+package CanteenRushh;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * StaticSceneLayer - bakes everything that never moves (background and props) into one image.
+ * - The background is stretched to the full size, props are drawn into their rectangles
+ * - The bake is redone only when the size, the graphics configuration or the layout changes
+ *   (setBackground / addProp / clearProps); otherwise get() returns the same image
+ * - The image is compatible with the screen, so presenting it is a plain unscaled blit
+ *
+ * Usage:
+ *   layer.setBackground(img); layer.addProp(tableImg, rect);
+ *   g.drawImage(layer.get(w, h, getGraphicsConfiguration()), 0, 0, null);
+ */
+public class StaticSceneLayer {
+
+    private static final class Prop {
+        final Image image;
+        final Rectangle bounds;
+
+        Prop(Image image, Rectangle bounds) {
+            this.image = image;
+            this.bounds = new Rectangle(bounds);
+        }
+    }
+
+    private Image background;
+    private final List<Prop> props = new ArrayList<>();
+
+    private BufferedImage baked;
+    private GraphicsConfiguration bakedFor;
+    private boolean stale = true;
+    private int bakeCount;
+
+    public void setBackground(Image background) {
+        this.background = background;
+        stale = true;
+    }
+
+    /** Props are drawn in the order they are added (later ones on top). */
+    public void addProp(Image image, Rectangle bounds) {
+        props.add(new Prop(image, bounds));
+        stale = true;
+    }
+
+    public void clearProps() {
+        props.clear();
+        stale = true;
+    }
+
+    /** Forces a new bake on the next get(). */
+    public void invalidate() { stale = true; }
+
+    /**
+     * @param gc configuration to make the image compatible with (null for a plain RGB image)
+     * @return the baked layer, exactly width x height
+     */
+    public BufferedImage get(int width, int height, GraphicsConfiguration gc) {
+        width = Math.max(1, width);
+        height = Math.max(1, height);
+        if (!stale && baked != null && baked.getWidth() == width && baked.getHeight() == height && bakedFor == gc) {
+            return baked;
+        }
+
+        if (baked == null || baked.getWidth() != width || baked.getHeight() != height || bakedFor != gc) {
+            if (baked != null) baked.flush();
+            baked = gc != null ? gc.createCompatibleImage(width, height)
+                    : new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+            bakedFor = gc;
+        }
+        Graphics2D g = baked.createGraphics();
+        try {
+            g.setColor(Color.BLACK);
+            g.fillRect(0, 0, width, height);
+            if (background != null) g.drawImage(background, 0, 0, width, height, null);
+            for (Prop p : props) {
+                if (p.image != null) g.drawImage(p.image, p.bounds.x, p.bounds.y, p.bounds.width, p.bounds.height, null);
+            }
+        } finally {
+            g.dispose();
+        }
+        stale = false;
+        bakeCount++;
+        return baked;
+    }
+
+    /** Number of bakes so far (for checking that frames reuse the layer). */
+    public int getBakeCount() { return bakeCount; }
+}
@@ -0,0 +1,149 @@
+package CanteenRushh;
+
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics2D;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * TextLayoutCache - word-wrap line breaks computed once per (text, font, width).
+ * - Breaks at spaces/tabs when a line would get wider than the width, and always at '\n'
+ * - A Layout keeps the text as a char[] plus start/end per line; drawing a typewriter
+ *   prefix is just drawChars over the lines up to the visible count (no strings, no measuring)
+ * - Asking again for the text that was laid out last is a field comparison (no allocation);
+ *   other entries come from a small LRU map
+ *
+ * Usage (from paint code):
+ *   TextLayoutCache.Layout l = cache.layout(g2, text, maxWidth); // uses g2's current font
+ *   l.draw(g2, visibleChars, x, y, lineHeight);
+ */
+public final class TextLayoutCache {
+
+    /** Line breaks of one text for one font and width. */
+    public static final class Layout {
+        private final String text;
+        private final Font font;
+        private final int maxWidth;
+        private final char[] chars;
+        private final int[] lineStart;
+        private final int[] lineEnd; // exclusive, trailing whitespace not included
+        private final int lineCount;
+
+        private Layout(String text, Font font, int maxWidth, char[] chars, int[] lineStart, int[] lineEnd, int lineCount) {
+            this.text = text;
+            this.font = font;
+            this.maxWidth = maxWidth;
+            this.chars = chars;
+            this.lineStart = lineStart;
+            this.lineEnd = lineEnd;
+            this.lineCount = lineCount;
+        }
+
+        public int getLineCount() { return lineCount; }
+
+        public int getLength() { return chars.length; }
+
+        /**
+         * Draws the lines, showing only the first {@code visible} characters of the text.
+         * @param y baseline of the first line
+         */
+        public void draw(Graphics2D g2, int visible, int x, int y, int lineHeight) {
+            for (int i = 0; i < lineCount; i++) {
+                int start = lineStart[i];
+                if (start >= visible) return;
+                int end = Math.min(lineEnd[i], visible);
+                if (end > start) g2.drawChars(chars, start, end - start, x, y);
+                y += lineHeight;
+            }
+        }
+
+        boolean matches(String text, Font font, int maxWidth) {
+            return this.maxWidth == maxWidth && this.text.equals(text) && this.font.equals(font);
+        }
+    }
+
+    private static final int DEFAULT_CAPACITY = 32;
+
+    private final Map<String, Layout> entries;
+    private Layout last;
+
+    public TextLayoutCache() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public TextLayoutCache(final int capacity) {
+        this.entries = new LinkedHashMap<String, Layout>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Layout> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    /** Layout of the text in g2's current font; computed only the first time. */
+    public Layout layout(Graphics2D g2, String text, int maxWidth) {
+        if (text == null) text = "";
+        Font font = g2.getFont();
+        Layout l = last;
+        if (l != null && l.text == text && l.maxWidth == maxWidth && l.font.equals(font)) return l;
+
+        // the text is the usual distinguishing part; font and width are checked on the entry
+        l = entries.get(text);
+        if (l == null || !l.matches(text, font, maxWidth)) {
+            l = compute(text, font, g2.getFontMetrics(font), maxWidth);
+            entries.put(text, l);
+        }
+        last = l;
+        return l;
+    }
+
+    public void clear() {
+        entries.clear();
+        last = null;
+    }
+
+    // ---------------- LINE BREAKING ----------------
+    static Layout compute(String text, Font font, FontMetrics fm, int maxWidth) {
+        char[] chars = text.toCharArray();
+        int n = chars.length;
+        int[] starts = new int[8];
+        int[] ends = new int[8];
+        int count = 0;
+
+        int i = 0;
+        while (i <= n) {
+            // start of a line: skip blanks (but not a hard break)
+            while (i < n && isBlank(chars[i])) i++;
+            int start = i;
+            int end = i;   // end of the last word that fits
+            int j = i;
+            while (j < n && chars[j] != '\n') {
+                int wordEnd = j;
+                while (wordEnd < n && !isBlank(chars[wordEnd]) && chars[wordEnd] != '\n') wordEnd++;
+                // first word always goes on the line, even if it is too wide
+                if (end > start && fm.charsWidth(chars, start, wordEnd - start) > maxWidth) break;
+                end = wordEnd;
+                j = wordEnd;
+                while (j < n && isBlank(chars[j])) j++;
+            }
+
+            if (count == starts.length) {
+                starts = Arrays.copyOf(starts, count * 2);
+                ends = Arrays.copyOf(ends, count * 2);
+            }
+            starts[count] = start;
+            ends[count] = end;
+            count++;
+
+            if (j >= n) break;
+            i = chars[j] == '\n' ? j + 1 : j;
+        }
+        return new Layout(text, font, maxWidth, chars, starts, ends, count);
+    }
+
+    private static boolean isBlank(char c) {
+        return c == ' ' || c == '\t' || c == '\r';
+    }
+}
@@ -0,0 +1,73 @@
+package CanteenRushh;
+
+import java.util.function.Supplier;
+
+/**
+ * AllocationCheck - fails when CustomerQueue.update allocates in steady state.
+ * - 500 customers queued (BenchFixtures): one lane, one lane with the navigation flow field,
+ *   4 lanes/counters, and 4 lanes/counters served every tick
+ * - Patience is pinned (nobody leaves angrily). In the served case every counter is paid
+ *   after each update, so calling, markPaid, lane compaction, the patience heap and the
+ *   replacement spawn are all measured
+ * - Warms up until everyone has walked to their slot or counter and the JIT has compiled update,
+ *   then counts the bytes the thread allocated over MEASURED_TICKS updates
+ *   (com.sun.management.ThreadMXBean, same counter as FrameStats)
+ *
+ * Run from the repository root after compiling like SimulationBenchmark:
+ *   java -Djava.awt.headless=true -cp out CanteenRushh.AllocationCheck
+ *
+ * Prints bytes per tick for each case and exits with status 1 if any is above zero.
+ */
+public class AllocationCheck {
+
+    private static final int CUSTOMERS = 500;
+    private static final int WARMUP_TICKS = 20_000;
+    private static final int MEASURED_TICKS = 10_000;
+    private static final double DT = 1.0 / 60.0;
+
+    public static void main(String[] args) {
+        System.setProperty("java.awt.headless", "true");
+        if (!FrameStats.canMeasureAllocation()) {
+            System.out.println("AllocationCheck: this JVM cannot count allocated bytes per thread");
+            System.exit(2);
+        }
+
+        boolean ok = true;
+        ok &= check("CustomerQueue.update/" + CUSTOMERS, false, () -> BenchFixtures.newQueue(CUSTOMERS));
+        ok &= check("CustomerQueue.update+nav/" + CUSTOMERS, false, () -> {
+            CustomerQueue q = BenchFixtures.newQueue(CUSTOMERS);
+            q.setNavigation(BenchFixtures.newNavigation());
+            return q;
+        });
+        ok &= check("CustomerQueue.update+4counters/" + CUSTOMERS, false,
+                () -> BenchFixtures.newLanes(CUSTOMERS, 4));
+        ok &= check("CustomerQueue.update+4counters+serve/" + CUSTOMERS, true,
+                () -> BenchFixtures.newLanes(CUSTOMERS, 4));
+
+        if (!ok) {
+            System.out.println("AllocationCheck: FAILED");
+            System.exit(1);
+        }
+        System.out.println("AllocationCheck: ok");
+    }
+
+    private static boolean check(String name, boolean serve, Supplier<CustomerQueue> setup) {
+        CustomerQueue queue = setup.get();
+        for (int i = 0; i < WARMUP_TICKS; i++) tick(queue, serve);
+
+        long before = FrameStats.allocatedBytes();
+        for (int i = 0; i < MEASURED_TICKS; i++) tick(queue, serve);
+        long bytes = FrameStats.allocatedBytes() - before;
+
+        boolean ok = bytes <= 0;
+        System.out.println(String.format("%-40s %10.2f bytes/tick  %s",
+                name, bytes / (double) MEASURED_TICKS, ok ? "ok" : "ALLOCATES"));
+        return ok;
+    }
+
+    private static void tick(CustomerQueue queue, boolean serve) {
+        queue.update(DT);
+        if (!serve) return;
+        for (int k = 0; k < queue.getCounterCount(); k++) queue.markPaid(k);
+    }
+}
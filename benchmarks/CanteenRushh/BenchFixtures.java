@@ -0,0 +1,49 @@
+package CanteenRushh;
+
+import java.awt.*;
+import java.util.Random;
+
+/**
+ * BenchFixtures - the queues and navigation grid SimulationBenchmark and AllocationCheck run on.
+ * - One lane with one counter, or several lanes each with its own counter
+ * - Patience is pinned so nobody ever leaves angrily: without it every customer's patience
+ *   runs out together after 15 s of updates and a run would mix steady ticks with a mass respawn
+ * - The grid has the same counter and tables as GamePanel
+ */
+final class BenchFixtures {
+
+    static final int PINNED_PATIENCE = Integer.MAX_VALUE;
+
+    private BenchFixtures() {}
+
+    static CustomerQueue newQueue(int n) {
+        CustomerQueue q = new CustomerQueue(new Rectangle(0, 180, 220, 520), new Point(160, 260), 6, null);
+        q.setCustomerPatience(PINNED_PATIENCE);
+        q.spawnInitial(n);
+        return q;
+    }
+
+    static CustomerQueue newLanes(int n, int counters) {
+        Rectangle[] lanes = new Rectangle[counters];
+        Point[] positions = new Point[counters];
+        for (int k = 0; k < counters; k++) {
+            lanes[k] = new Rectangle(k * 170, 180, 220, 520);
+            positions[k] = new Point(160 + k * 160, 260);
+        }
+        CustomerQueue q = new CustomerQueue(lanes, positions, 6, CustomerQueue.AssignmentPolicy.SHORTEST_LINE,
+                null, new Random(1));
+        q.setCustomerPatience(PINNED_PATIENCE);
+        q.spawnInitial(n);
+        return q;
+    }
+
+    static NavigationGrid newNavigation() {
+        NavigationGrid grid = new NavigationGrid(1000, 750, 20, 8);
+        grid.block(new Rectangle(100, 90, 700, 150));
+        grid.block(new Rectangle(200, 350, 180, 120));
+        grid.block(new Rectangle(500, 350, 180, 120));
+        grid.block(new Rectangle(200, 550, 180, 120));
+        grid.block(new Rectangle(500, 550, 180, 120));
+        return grid;
+    }
+}
@@ -0,0 +1,207 @@
+package CanteenRushh;
+
+import java.awt.*;
+import java.awt.event.KeyEvent;
+import java.awt.event.KeyListener;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * SimulationBenchmark - headless micro-benchmarks for the simulation and text paths.
+ * - CustomerQueue.update (straight walking, with the navigation flow field, and 4 counters/lanes),
+ *   Customer.update, Customer.draw (offscreen), Player.update
+ * - queue sizes from 4 to 10,000
+ * - dialogue wrapping through IntroScene.draw and INTRO's painted dialog box
+ *
+ * Plain Java harness (timed warm-up, iterations of at least 10 ms, median ns/op) because the project has
+ * no build file to pull in JMH. Lives in the CanteenRushh package to reach package-private API.
+ *
+ * Run from the repository root:
+ *   javac -encoding UTF-8 -d out $(find CanteenRushh GameLauncher benchmarks -name "*.java")
+ *   java -Djava.awt.headless=true -cp out:CanteenRushh CanteenRushh.SimulationBenchmark [filter]
+ *
+ * Output is one line per benchmark ("name  ns/op"), easy to diff between commits.
+ */
+public class SimulationBenchmark {
+
+    interface Bench {
+        /** Run the operation ops times. */
+        void run(int ops);
+    }
+
+    private static final int[] QUEUE_SIZES = { 4, 16, 64, 256, 1000, 10000 };
+    private static final int MEASURE_ITERATIONS = 10;
+    // time spent running a benchmark before it is calibrated
+    private static final long WARMUP_NANOS = 1_000_000_000L;
+    // every measured iteration lasts at least this long
+    private static final long MIN_ITERATION_NANOS = 10_000_000L;
+
+    private static final double DT = 1.0 / 60.0;
+
+    // results are folded in here so the JIT cannot drop the work
+    static volatile long sink;
+
+    public static void main(String[] args) {
+        System.setProperty("java.awt.headless", "true");
+        String filter = args.length > 0 ? args[0] : "";
+
+        SpriteAtlas.preload();
+
+        for (int n : QUEUE_SIZES) {
+            final CustomerQueue queue = BenchFixtures.newQueue(n);
+            measure(filter, "CustomerQueue.update/" + n, ops -> {
+                for (int i = 0; i < ops; i++) queue.update(DT);
+                sink += queue.getQueueSize();
+            });
+        }
+
+        for (int n : QUEUE_SIZES) {
+            final CustomerQueue queue = BenchFixtures.newQueue(n);
+            queue.setNavigation(BenchFixtures.newNavigation());
+            measure(filter, "CustomerQueue.update+nav/" + n, ops -> {
+                for (int i = 0; i < ops; i++) queue.update(DT);
+                sink += queue.getQueueSize();
+            });
+        }
+
+        for (int n : QUEUE_SIZES) {
+            final CustomerQueue queue = BenchFixtures.newLanes(n, 4);
+            measure(filter, "CustomerQueue.update+4counters/" + n, ops -> {
+                for (int i = 0; i < ops; i++) {
+                    queue.update(DT);
+                    // keep the counters turning over so calls and payments are part of the work
+                    for (int k = 0; k < queue.getCounterCount(); k++) queue.markPaid(k);
+                }
+                sink += queue.getQueueSize();
+            });
+        }
+
+        for (int n : QUEUE_SIZES) {
+            final Customer[] crowd = newCustomers(n);
+            measure(filter, "Customer.update/" + n, ops -> {
+                for (int i = 0; i < ops; i++) {
+                    for (Customer c : crowd) c.update(DT);
+                }
+                sink += (long) crowd[0].getX();
+            });
+        }
+
+        final BufferedImage canvas = new BufferedImage(1000, 750, BufferedImage.TYPE_INT_ARGB);
+        for (int n : QUEUE_SIZES) {
+            final Customer[] crowd = newCustomers(n);
+            for (int i = 0; i < crowd.length; i += 3) crowd[i].arriveAtCounterAndChooseRequest();
+            measure(filter, "Customer.draw/" + n, ops -> {
+                Graphics2D g = canvas.createGraphics();
+                try {
+                    for (int i = 0; i < ops; i++) {
+                        for (Customer c : crowd) c.draw(g);
+                    }
+                } finally {
+                    g.dispose();
+                }
+                sink += canvas.getRGB(0, 0);
+            });
+        }
+
+        benchPlayer(filter);
+        benchDialogue(filter, canvas);
+    }
+
+    // ---------------- FIXTURES ----------------
+    // queues and the navigation grid come from BenchFixtures (shared with AllocationCheck)
+    private static Customer[] newCustomers(int n) {
+        Customer[] crowd = new Customer[n];
+        for (int i = 0; i < n; i++) {
+            crowd[i] = new Customer(i + 1, new Point(500 + (i % 50) * 4, 700 - (i % 40) * 4));
+            crowd[i].setTarget(new Point(60, 100 + (i % 10) * 60));
+        }
+        return crowd;
+    }
+
+    private static void benchPlayer(String filter) {
+        if (!"Player.update".contains(filter)) return;
+        final Player player = new Player();
+        measure(filter, "Player.update", ops -> {
+            for (int i = 0; i < ops; i++) {
+                // keep it walking: retarget whenever it arrives
+                if ((i & 127) == 0) player.moveTo((i >> 7) % 2 == 0 ? 900 : 100, 600);
+                player.update(0.02);
+            }
+            sink += player.getX();
+        });
+    }
+
+    private static void benchDialogue(String filter, BufferedImage canvas) {
+        final String text = "Even though I'm tired, the register is already waiting — and customers don’t wait. "
+                + "Customers are starving. The line is growing.\nServe fast. Stay sharp.";
+
+        // IntroScene.draw with the text fully revealed (line breaks from TextLayoutCache)
+        final IntroScene scene = new IntroScene();
+        scene.startDialog(text, "Alex");
+        scene.skipDialog();
+        measure(filter, "IntroScene.draw+TextLayoutCache", ops -> {
+            Graphics2D g = canvas.createGraphics();
+            try {
+                for (int i = 0; i < ops; i++) scene.draw(g, canvas.getWidth(), canvas.getHeight());
+            } finally {
+                g.dispose();
+            }
+            sink += canvas.getRGB(40, canvas.getHeight() - 60);
+        });
+
+        // INTRO.paintComponent after skipping the typing (dialog box wrapped by TextLayoutCache)
+        final INTRO intro = new INTRO();
+        intro.setSize(canvas.getWidth(), canvas.getHeight());
+        KeyEvent skip = new KeyEvent(intro, KeyEvent.KEY_PRESSED, 0L, 0, KeyEvent.VK_SPACE, ' ');
+        for (KeyListener kl : intro.getKeyListeners()) kl.keyPressed(skip);
+        measure(filter, "INTRO.paintComponent+TextLayoutCache", ops -> {
+            Graphics2D g = canvas.createGraphics();
+            try {
+                for (int i = 0; i < ops; i++) intro.paintComponent(g);
+            } finally {
+                g.dispose();
+            }
+            sink += canvas.getRGB(40, canvas.getHeight() - 60);
+        });
+    }
+
+    // ---------------- HARNESS ----------------
+    private static void measure(String filter, String name, Bench bench) {
+        if (!name.contains(filter)) return;
+
+        // warm up for a fixed time first, so the calibration below times compiled code
+        long warmupEnd = System.nanoTime() + WARMUP_NANOS;
+        int ops = 1;
+        while (System.nanoTime() < warmupEnd) {
+            long t0 = System.nanoTime();
+            bench.run(ops);
+            // batches grow until they are as long as a measured iteration
+            if (System.nanoTime() - t0 < MIN_ITERATION_NANOS && ops < (1 << 24)) ops *= 2;
+        }
+
+        // calibrate ops so one iteration lasts at least MIN_ITERATION_NANOS
+        ops = 1;
+        while (true) {
+            long t0 = System.nanoTime();
+            bench.run(ops);
+            long t = System.nanoTime() - t0;
+            if (t >= MIN_ITERATION_NANOS || ops >= (1 << 24)) break;
+            ops = (int) Math.min(1L << 24, Math.max(ops * 2L, ops * (MIN_ITERATION_NANOS / Math.max(1, t)) + 1));
+        }
+
+        List<Double> samples = new ArrayList<>();
+        for (int i = 0; i < MEASURE_ITERATIONS; i++) {
+            long t0 = System.nanoTime();
+            bench.run(ops);
+            samples.add((System.nanoTime() - t0) / (double) ops);
+        }
+        double[] sorted = new double[samples.size()];
+        for (int i = 0; i < sorted.length; i++) sorted[i] = samples.get(i);
+        Arrays.sort(sorted);
+
+        System.out.println(String.format("%-40s %14.1f ns/op  (min %.1f, max %.1f, %d ops/iter)",
+                name, sorted[sorted.length / 2], sorted[0], sorted[sorted.length - 1], ops));
+    }
+}